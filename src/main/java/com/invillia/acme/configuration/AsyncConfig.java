@@ -0,0 +1,34 @@
+package com.invillia.acme.configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Configuração do processamento assíncrono. <br><br>
+ * 
+ * Os Payments são processados por um pool fixo de workers com uma fila limitada: quando a fila enche, novas
+ * submissões são rejeitadas em vez de acumular trabalho sem limite, e a API sinaliza ao cliente para tentar novamente.
+ * 
+ * @author Daniel
+ */
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+	@Bean(destroyMethod = "shutdown")
+	public ThreadPoolExecutor paymentExecutor(@Value("${acme.payments.workers:4}") int workers,
+			@Value("${acme.payments.queue-capacity:1000}") int queueCapacity) {
+		return new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				new CustomizableThreadFactory("payment-"),
+				new ThreadPoolExecutor.AbortPolicy());
+	}
+
+}
@@ -0,0 +1,21 @@
+package com.invillia.acme.configuration;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Habilita o cache de leitura das Stores. <br><br>
+ * 
+ * O cache é provido pelo Caffeine e configurado pelas propriedades 'spring.cache.*' (tamanho máximo, TTL e coleta
+ * de estatísticas). Os contadores de hit/miss/eviction ficam disponíveis em /actuator/metrics/cache.gets e
+ * /actuator/metrics/cache.evictions.
+ * 
+ * @author Daniel
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+	public static final String STORES_CACHE = "stores";
+
+}
@@ -0,0 +1,30 @@
+package com.invillia.acme.configuration;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invillia.acme.filter.ClientResolver;
+import com.invillia.acme.filter.IdempotencyFilter;
+import com.invillia.acme.filter.IdempotencyKeyStore;
+
+/**
+ * Registra o IdempotencyFilter nos recursos de criação. Para proteger um novo recurso POST, basta incluir o seu
+ * caminho nos url patterns abaixo.
+ * 
+ * @author Daniel
+ */
+@Configuration
+public class IdempotencyConfig {
+
+	@Bean
+	public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyKeyStore store, ClientResolver clientResolver,
+			ObjectMapper objectMapper) {
+		FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+				new IdempotencyFilter(store, clientResolver, objectMapper));
+		registration.addUrlPatterns("/stores/*", "/orders/*");
+		return registration;
+	}
+
+}
@@ -0,0 +1,48 @@
+package com.invillia.acme.configuration;
+
+import java.lang.reflect.Method;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Marca os beans da aplicação como lazy, de forma que sejam criados somente quando usados pela primeira vez. <br><br>
+ *
+ * Os beans com métodos @Scheduled continuam sendo criados na inicialização, pois as tarefas agendadas só são
+ * registradas quando o bean é criado.
+ *
+ * @author Daniel
+ */
+class LazyInitBeanFactoryPostProcessor implements BeanFactoryPostProcessor {
+
+	@Override
+	public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+		for (String name : beanFactory.getBeanDefinitionNames()) {
+			BeanDefinition definition = beanFactory.getBeanDefinition(name);
+			if (definition.isSingleton() && !hasScheduledMethods(definition, beanFactory.getBeanClassLoader())) {
+				definition.setLazyInit(true);
+			}
+		}
+	}
+
+	private boolean hasScheduledMethods(BeanDefinition definition, ClassLoader classLoader) {
+		// Os beans declarados por métodos @Bean não têm a classe na definição - nenhum deles possui tarefas agendadas.
+		String className = definition.getBeanClassName();
+		if (className == null || !ClassUtils.isPresent(className, classLoader)) {
+			return false;
+		}
+		Class<?> beanClass = ClassUtils.resolveClassName(className, classLoader);
+		for (Method method : ReflectionUtils.getUniqueDeclaredMethods(beanClass)) {
+			if (AnnotationUtils.findAnnotation(method, Scheduled.class) != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,64 @@
+package com.invillia.acme.configuration;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invillia.acme.filter.ClientResolver;
+import com.invillia.acme.filter.ConcurrencyLimiter;
+import com.invillia.acme.filter.LoadSheddingFilter;
+import com.invillia.acme.filter.QueueingTimeMetricsTrackerFactory;
+import com.invillia.acme.filter.RateLimiter;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Registra o LoadSheddingFilter nos recursos da API. Os endpoints do actuator (health e métricas) não são limitados.
+ * O filtro é executado antes dos demais filtros da aplicação, para que uma requisição recusada não consuma nada além
+ * da resposta de erro - mas depois do filtro de métricas do Spring, para que os 429 e 503 apareçam em
+ * http.server.requests. <br><br>
+ *
+ * O pool de conexões do Hikari recebe o QueueingTimeMetricsTrackerFactory, que informa ao filtro o tempo de espera por
+ * uma conexão - a medida usada para ajustar o limite de requisições simultâneas.
+ *
+ * @author Daniel
+ */
+@Configuration
+public class LoadSheddingConfig {
+
+	@Bean
+	public LoadSheddingFilter loadSheddingFilter(RateLimiter rateLimiter, ConcurrencyLimiter concurrencyLimiter,
+			ClientResolver clientResolver, ObjectMapper objectMapper, MeterRegistry registry) {
+		return new LoadSheddingFilter(rateLimiter, concurrencyLimiter, clientResolver, objectMapper, registry);
+	}
+
+	@Bean
+	public FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilterRegistration(LoadSheddingFilter filter) {
+		FilterRegistrationBean<LoadSheddingFilter> registration = new FilterRegistrationBean<>(filter);
+		registration.addUrlPatterns("/stores/*", "/orders/*", "/payments/*", "/refunds/*", "/sales/*", "/changes");
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+		return registration;
+	}
+
+	@Bean
+	public static BeanPostProcessor queueingTimeDataSourcePostProcessor(ObjectProvider<MeterRegistry> registry) {
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+				if (bean instanceof HikariDataSource) {
+					((HikariDataSource) bean).setMetricsTrackerFactory(new QueueingTimeMetricsTrackerFactory(registry::getIfAvailable));
+				}
+				return bean;
+			}
+
+		};
+	}
+
+}
@@ -0,0 +1,44 @@
+package com.invillia.acme.configuration;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.invillia.acme.metrics.SqlStatementInspector;
+import com.invillia.acme.metrics.StatementCountFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuração das métricas de latência e de acesso ao banco. <br><br>
+ *
+ * Os histogramas das requisições (http.server.requests) são configurados pelas propriedades
+ * 'management.metrics.distribution.*'. Aqui o SqlStatementInspector é registrado no Hibernate e o
+ * StatementCountFilter é aplicado a todas as requisições. As métricas ficam disponíveis em /actuator/metrics.
+ *
+ * @author Daniel
+ */
+@Configuration
+public class MetricsConfig {
+
+	@Bean
+	public HibernatePropertiesCustomizer statementInspectorCustomizer(SqlStatementInspector inspector) {
+		return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+	}
+
+	@Bean
+	public StatementCountFilter statementCountFilter(SqlStatementInspector inspector, MeterRegistry registry) {
+		return new StatementCountFilter(inspector, registry);
+	}
+
+	@Bean
+	public FilterRegistrationBean<StatementCountFilter> statementCountFilterRegistration(StatementCountFilter filter) {
+		FilterRegistrationBean<StatementCountFilter> registration = new FilterRegistrationBean<>(filter);
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+		return registration;
+	}
+
+}
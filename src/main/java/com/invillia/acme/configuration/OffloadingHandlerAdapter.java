@@ -0,0 +1,90 @@
+package com.invillia.acme.configuration;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.invillia.acme.filter.IdempotencyFilter;
+
+/**
+ * RequestMappingHandlerAdapter que executa os métodos dos controllers informados fora da thread do Tomcat. <br><br>
+ *
+ * Os argumentos são resolvidos normalmente e a chamada ao controller é devolvida ao Spring MVC como um Callable, que
+ * a executa no executor configurado em 'configureAsyncSupport' e despacha o resultado de volta ao container. A thread
+ * do Tomcat é liberada enquanto o controller e o banco trabalham, e o retorno (ResponseEntity, exceções, 304 etc.) é
+ * tratado exatamente como no modo síncrono. <br><br>
+ *
+ * Não são desviados: os recursos cujo corpo já é escrito em streaming (StreamingResponseBody) e as requisições com o
+ * header Idempotency-Key, pois o IdempotencyFilter precisa da resposta completa na mesma thread.
+ *
+ * @author Daniel
+ */
+class OffloadingHandlerAdapter extends RequestMappingHandlerAdapter {
+
+	private final Set<Class<?>> controllers;
+
+	OffloadingHandlerAdapter(Set<Class<?>> controllers) {
+		this.controllers = controllers;
+	}
+
+	@Override
+	protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+		if (!controllers.contains(handlerMethod.getBeanType()) || isStreaming(handlerMethod)) {
+			return super.createInvocableHandlerMethod(handlerMethod);
+		}
+		return new OffloadedHandlerMethod(handlerMethod);
+	}
+
+	private boolean isStreaming(HandlerMethod handlerMethod) {
+		ResolvableType returnType = ResolvableType.forMethodParameter(handlerMethod.getReturnType());
+		Class<?> body = returnType.getGeneric().resolve();
+		return body != null && StreamingResponseBody.class.isAssignableFrom(body);
+	}
+
+	private static class OffloadedHandlerMethod extends ServletInvocableHandlerMethod {
+
+		OffloadedHandlerMethod(HandlerMethod handlerMethod) {
+			super(handlerMethod);
+		}
+
+		@Override
+		public Object invokeForRequest(NativeWebRequest request, ModelAndViewContainer mavContainer,
+				Object... providedArgs) throws Exception {
+
+			if (request.getHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER) != null) {
+				return super.invokeForRequest(request, mavContainer, providedArgs);
+			}
+			// Os argumentos são resolvidos na thread do Tomcat: o NativeWebRequest deixa de ser válido quando ela
+			// é liberada. O worker apenas executa o controller, com o request exposto no RequestContextHolder (usado
+			// pelo ServletUriComponentsBuilder).
+			Object[] args = getMethodArgumentValues(request, mavContainer, providedArgs);
+			RequestAttributes attributes = new ServletRequestAttributes(request.getNativeRequest(HttpServletRequest.class),
+					request.getNativeResponse(HttpServletResponse.class));
+			Callable<Object> invocation = () -> {
+				RequestContextHolder.setRequestAttributes(attributes);
+				try {
+					return doInvoke(args);
+				}
+				finally {
+					RequestContextHolder.resetRequestAttributes();
+				}
+			};
+			return invocation;
+		}
+
+	}
+
+}
@@ -0,0 +1,25 @@
+package com.invillia.acme.configuration;
+
+import org.hibernate.boot.model.naming.Identifier;
+import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
+import org.springframework.boot.orm.jpa.hibernate.SpringPhysicalNamingStrategy;
+
+/**
+ * Estratégia de nomes do Hibernate que mantém os nomes entre aspas exatamente como foram declarados. <br><br>
+ * 
+ * A estratégia padrão do Spring converte todos os nomes para minúsculas, o que transformaria a tabela "ORDER"
+ * (que precisa de aspas por ser uma palavra reservada) em "order", que não existe no H2.
+ * 
+ * @author Daniel
+ */
+public class QuotedIdentifierNamingStrategy extends SpringPhysicalNamingStrategy {
+
+	@Override
+	public Identifier toPhysicalTableName(Identifier name, JdbcEnvironment jdbcEnvironment) {
+		if (name != null && name.isQuoted()) {
+			return name;
+		}
+		return super.toPhysicalTableName(name, jdbcEnvironment);
+	}
+
+}
@@ -0,0 +1,26 @@
+package com.invillia.acme.configuration;
+
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Inicialização lazy dos beans, habilitada com 'acme.startup.lazy-init=true' (como no perfil 'prod'). <br><br>
+ *
+ * Junto com o Swagger desligado, o JMX desligado e o bootstrap 'deferred' dos repositórios (o EntityManagerFactory é
+ * construído em segundo plano), reduz o tempo até a primeira requisição e a memória ocupada após a subida. O custo é
+ * transferido para a primeira requisição que usa cada bean. O StartupBenchmark mede os dois modos.
+ *
+ * @author Daniel
+ */
+@Configuration
+@ConditionalOnProperty(name = "acme.startup.lazy-init", havingValue = "true")
+public class StartupConfig {
+
+	@Bean
+	public static BeanFactoryPostProcessor lazyInitBeanFactoryPostProcessor() {
+		return new LazyInitBeanFactoryPostProcessor();
+	}
+
+}
@@ -1,5 +1,6 @@
 package com.invillia.acme.configuration;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -9,7 +10,16 @@ import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spring.web.plugins.Docket;
 import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
+/**
+ * Documentação da API pelo Swagger, disponível em /docs. <br><br>
+ * 
+ * A varredura dos controllers feita pelo Springfox acontece na inicialização, então pode ser desligada com
+ * 'acme.swagger.enabled=false' (como no perfil 'prod') para reduzir o tempo de subida.
+ * 
+ * @author Daniel
+ */
 @Configuration
+@ConditionalOnProperty(name = "acme.swagger.enabled", havingValue = "true", matchIfMissing = true)
 @EnableSwagger2
 public class SwaggerConfig {
 
@@ -0,0 +1,84 @@
+package com.invillia.acme.configuration;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import com.invillia.acme.controller.OrderController;
+import com.invillia.acme.controller.StoreController;
+import com.invillia.acme.filter.LoadSheddingFilter;
+import com.invillia.acme.metrics.StatementCountFilter;
+
+/**
+ * Modo de execução assíncrono dos recursos de Stores e Orders, habilitado com 'acme.web.execution-mode=async'
+ * (o padrão, 'servlet', executa tudo na thread do Tomcat). <br><br>
+ *
+ * Neste modo as requisições são aceitas pelo Tomcat e desviadas para um pool fixo de workers
+ * ('acme.web.workers', da ordem do pool de conexões do banco) com uma fila limitada ('acme.web.queue-capacity').
+ * Como a thread do Tomcat é liberada assim que a requisição é enfileirada, milhares de requisições podem ficar em
+ * andamento (até o 'server.tomcat.max-connections') com poucas threads, e a lentidão do banco gera fila em vez de
+ * esgotar o pool do Tomcat. Quando a fila enche, a requisição é executada na própria thread do Tomcat, que deixa de
+ * aceitar novas requisições até terminar. Requisições que passam de 'acme.web.timeout-ms' recebem 503. <br><br>
+ *
+ * O modo fica desligado por padrão: no teste de carga com o banco como gargalo, a vazão foi a mesma nos dois modos
+ * (cerca de 72 req/s) e a mediana do tempo de resposta piorou (27 s no async contra 22,7 s no servlet), porque a
+ * fila apenas muda de lugar - da thread do Tomcat para a fila de workers. O ganho esperado é só o de conexões
+ * simultâneas aceitas com poucas threads; para proteger o banco, use o limite de requisições simultâneas
+ * (LoadSheddingFilter).
+ *
+ * @author Daniel
+ */
+@Configuration
+@ConditionalOnProperty(name = "acme.web.execution-mode", havingValue = "async")
+public class WebExecutionConfig implements WebMvcConfigurer, WebMvcRegistrations {
+
+	private final ThreadPoolTaskExecutor webExecutor;
+	private final long timeoutMs;
+	private final StatementCountFilter statementCountFilter;
+	private final LoadSheddingFilter loadSheddingFilter;
+
+	public WebExecutionConfig(@Value("${acme.web.workers:10}") int workers,
+			@Value("${acme.web.queue-capacity:10000}") int queueCapacity,
+			@Value("${acme.web.timeout-ms:30000}") long timeoutMs,
+			StatementCountFilter statementCountFilter, LoadSheddingFilter loadSheddingFilter) {
+		this.webExecutor = new ThreadPoolTaskExecutor();
+		this.webExecutor.setCorePoolSize(workers);
+		this.webExecutor.setMaxPoolSize(workers);
+		this.webExecutor.setQueueCapacity(queueCapacity);
+		this.webExecutor.setThreadNamePrefix("web-");
+		this.webExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		this.timeoutMs = timeoutMs;
+		this.statementCountFilter = statementCountFilter;
+		this.loadSheddingFilter = loadSheddingFilter;
+	}
+
+	@Bean
+	public ThreadPoolTaskExecutor webExecutor() {
+		return webExecutor;
+	}
+
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		configurer.setTaskExecutor(webExecutor);
+		configurer.setDefaultTimeout(timeoutMs);
+		// Os comandos SQL executados pelo worker também entram na contagem da requisição.
+		// A espera na fila de workers entra no tempo de fila que ajusta o limite de requisições simultâneas.
+		configurer.registerCallableInterceptors(statementCountFilter, loadSheddingFilter);
+	}
+
+	@Override
+	public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+		return new OffloadingHandlerAdapter(new HashSet<>(Arrays.asList(StoreController.class, OrderController.class)));
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.invillia.acme.controller;
+
+import static com.invillia.acme.utils.StringUtils.isEmpty;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.invillia.acme.exception.ApiError;
+import com.invillia.acme.model.ChangeEvent;
+import com.invillia.acme.repository.ChangeEventRepository;
+
+/**
+ * Endpoint do feed de alterações de Stores, Orders e Payments. <br><br>
+ *
+ * Em vez de buscar periodicamente todas as Stores, o consumidor lê apenas os eventos publicados após a última
+ * posição ('sequence') que processou, e busca pelos recursos correspondentes somente o que mudou.
+ *
+ * @author Daniel
+ * @version 1.0
+ *
+ */
+@RestController
+public class ChangeController {
+
+	static final int DEFAULT_PAGE_SIZE = StoreController.DEFAULT_PAGE_SIZE;
+	static final int MAX_PAGE_SIZE = StoreController.MAX_PAGE_SIZE;
+
+	private final ChangeEventRepository repository;
+
+	@Autowired
+	public ChangeController(ChangeEventRepository repository) {
+		this.repository = repository;
+	}
+
+	/**
+	 * Recurso GET que retorna os eventos publicados após a posição <b>since</b>, na ordem da publicação.
+	 *
+	 * <br><br>
+	 *
+	 * A primeira leitura usa 'since' igual a 0; as seguintes usam o 'sequence' do último evento recebido. Uma
+	 * lista vazia indica que não há alterações novas. <br>
+	 * Retorna 400 e o tipo ApiError se os parâmetros forem inválidos, e 410 se os eventos após 'since' já tiverem
+	 * sido removidos do outbox - nesse caso o consumidor deve refazer a leitura completa e continuar a partir do
+	 * 'sequence' atual.
+	 *
+	 * @param since - Posição do último evento processado (padrão 0).
+	 * @param limit - Quantidade máxima de eventos (padrão 50, máximo 500).
+	 * @return List&lt;ChangeEvent&gt; ou ApiError
+	 */
+	@GetMapping("/changes")
+	public ResponseEntity<?> retrieveChanges(@RequestParam(value = "since", required = false) String since,
+			@RequestParam(value = "limit", required = false) Integer limit) {
+
+		long position = 0;
+		if (!isEmpty(since)) {
+			try {
+				position = Long.parseLong(since);
+			}
+			catch (NumberFormatException ex) {
+				position = -1;
+			}
+			if (position < 0) {
+				return handleError(HttpStatus.BAD_REQUEST, String.format("O parâmetro 'since' [%s] não é válido.", since));
+			}
+		}
+
+		int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+		if (pageSize < 1) {
+			return handleError(HttpStatus.BAD_REQUEST, String.format("O parâmetro 'limit' [%s] não é válido.", limit));
+		}
+
+		List<ChangeEvent> events = repository.findPublishedAfter(position, PageRequest.of(0, pageSize));
+
+		// Se o evento seguinte a 'since' não existe mais, o consumidor perderia alterações.
+		if (events.isEmpty() || events.get(0).getSequence() != position + 1) {
+			Long first = repository.findFirstSequence();
+			if (first != null && first > position + 1) {
+				return handleError(HttpStatus.GONE, String.format("Os eventos após a posição [%d] já foram removidos. "
+						+ "Refaça a leitura completa e continue a partir da posição [%d].", position, repository.findLastSequence()));
+			}
+		}
+		return ResponseEntity.ok(events);
+	}
+
+	private ResponseEntity<?> handleError(HttpStatus status, String message) {
+		return new ResponseEntity<>(new ApiError(status, message), status);
+	}
+
+}
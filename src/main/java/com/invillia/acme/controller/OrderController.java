@@ -0,0 +1,321 @@
+package com.invillia.acme.controller;
+
+import static com.invillia.acme.utils.StringUtils.isEmpty;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.invillia.acme.dto.OrderFilter;
+import com.invillia.acme.exception.ApiError;
+import com.invillia.acme.model.Order;
+import com.invillia.acme.model.OrderItem;
+import com.invillia.acme.model.OrderStatus;
+import com.invillia.acme.repository.OrderRepository;
+import com.invillia.acme.repository.StoreRepository;
+import com.invillia.acme.service.SalesAggregates;
+import com.invillia.acme.utils.Cursor;
+
+/**
+ * Endpoint que contém as funcionalidades de criar e buscar objetos da entidade Order. <br><br>
+ *
+ * O caminho completo dele é "{server}/api/v1/orders".
+ *
+ * @author Daniel
+ * @version 1.0
+ *
+ */
+@RestController
+public class OrderController {
+
+	static final String NEXT_CURSOR_HEADER = StoreController.NEXT_CURSOR_HEADER;
+	static final int DEFAULT_PAGE_SIZE = StoreController.DEFAULT_PAGE_SIZE;
+	static final int MAX_PAGE_SIZE = StoreController.MAX_PAGE_SIZE;
+
+	private final OrderRepository repository;
+	private final StoreRepository storeRepository;
+	private final SalesAggregates salesAggregates;
+	private final TransactionTemplate transactionTemplate;
+
+	@Autowired
+	public OrderController(OrderRepository repository, StoreRepository storeRepository, SalesAggregates salesAggregates,
+			PlatformTransactionManager transactionManager) {
+		this.repository = repository;
+		this.storeRepository = storeRepository;
+		this.salesAggregates = salesAggregates;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	/**
+	 * Recurso GET que busca e retorna uma Order, com os seus itens, a partir do seu id.
+	 *
+	 * <br><br>
+	 *
+	 * Caso o ID seja válido e a Order existir, o código do retorno será 200 e o conteúdo será a Order pesquisada.<br>
+	 * Se o ID for inválido, o código será 400 e o retorno será do tipo ApiError.<br>
+	 * Se o ID for válido mas a Order não existe, o retorno será 404 e o conteúdo também será do tipo ApiError.
+	 *
+	 * @param id - <b>UUID</b> da Order desejada.
+	 * @return Order ou ApiError.
+	 */
+	@GetMapping("/orders/{id}")
+	public ResponseEntity<?> retrieveOrderById(@PathVariable String id) {
+		if (isEmpty(id)) {
+			return handleError(HttpStatus.BAD_REQUEST, "O ID não foi informado");
+		}
+		try {
+			UUID uuid = UUID.fromString(id);
+			Order order = repository.findWithItemsById(uuid).get();
+			return ResponseEntity.ok(order);
+		}
+		catch (IllegalArgumentException ex) {
+			return handleError(HttpStatus.BAD_REQUEST, String.format("O ID [%s] não é válido.", id));
+		}
+		catch (NoSuchElementException ex) {
+			return handleError(HttpStatus.NOT_FOUND, String.format("Nenhuma Order encontrada para o ID [%s]", id));
+		}
+	}
+
+	/**
+	 * Recurso GET que busca Orders a partir da <b>Store</b>, do <b>status</b>, do período de confirmação e do
+	 * <b>address</b>.
+	 * 
+	 * <br><br>
+	 * 
+	 * É obrigatório informar o 'storeId' ou o 'status', que junto com o período delimitam a faixa dos índices do
+	 * "ORDER" percorrida pela busca. O 'address' é buscado por conteúdo, sem diferenciar maiúsculas. As datas
+	 * aceitam os formatos ISO-8601 "2018-11-20T10:15:30Z" ou "2018-11-20" (início do dia em UTC). <br>
+	 * Retorna código 400 e o tipo ApiError se os parâmetros forem inválidos, 404 se nenhuma Order for encontrada e
+	 * uma List&lt;Order&gt; com código 200 caso contrário.
+	 * 
+	 * <br><br>
+	 * 
+	 * O resultado é paginado por cursor (keyset) na ordem (confirmationDate, id), da mesma forma que a busca de
+	 * Stores: o cursor da próxima página é retornado nos headers <b>X-Next-Cursor</b> e <b>Link</b>.
+	 * 
+	 * @param storeId - UUID da Store.
+	 * @param status - Status da Order.
+	 * @param from - Data de confirmação inicial (inclusive).
+	 * @param to - Data de confirmação final (exclusive).
+	 * @param address - Endereço de entrega.
+	 * @param limit - Quantidade máxima de Orders na página (padrão 50, máximo 500).
+	 * @param after - Cursor retornado pela página anterior.
+	 * @return List&lt;Order&gt; ou ApiError
+	 */
+	@GetMapping("/orders")
+	public ResponseEntity<?> retrieveOrderByParameters(@RequestParam(value = "storeId", required = false) String storeId,
+			@RequestParam(value = "status", required = false) String status,
+			@RequestParam(value = "from", required = false) String from,
+			@RequestParam(value = "to", required = false) String to,
+			@RequestParam(value = "address", required = false) String address,
+			@RequestParam(value = "limit", required = false) Integer limit,
+			@RequestParam(value = "after", required = false) String after) {
+
+		// Valida os inputs
+		if (isEmpty(storeId) && isEmpty(status)) {
+			return handleError(HttpStatus.BAD_REQUEST, "É obrigatório informar o parâmetro 'storeId' ou 'status'. "
+					+ "Os parâmetros 'from', 'to' e 'address' podem ser usados para refinar a busca.");
+		}
+
+		OrderFilter filter = new OrderFilter();
+		filter.setAddress(address);
+		if (!isEmpty(storeId)) {
+			try {
+				filter.setStoreId(UUID.fromString(storeId));
+			}
+			catch (IllegalArgumentException ex) {
+				return handleError(HttpStatus.BAD_REQUEST, String.format("O ID [%s] não é válido.", storeId));
+			}
+		}
+		if (!isEmpty(status)) {
+			try {
+				filter.setStatus(OrderStatus.valueOf(status));
+			}
+			catch (IllegalArgumentException ex) {
+				return handleError(HttpStatus.BAD_REQUEST, String.format("O status [%s] não é válido.", status));
+			}
+		}
+		if (!isEmpty(from)) {
+			filter.setFrom(parseDate(from));
+			if (filter.getFrom() == null) {
+				return handleError(HttpStatus.BAD_REQUEST, String.format("A data 'from' [%s] não é válida.", from));
+			}
+		}
+		if (!isEmpty(to)) {
+			filter.setTo(parseDate(to));
+			if (filter.getTo() == null) {
+				return handleError(HttpStatus.BAD_REQUEST, String.format("A data 'to' [%s] não é válida.", to));
+			}
+		}
+
+		int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+		if (pageSize < 1) {
+			return handleError(HttpStatus.BAD_REQUEST, String.format("O parâmetro 'limit' [%s] não é válido.", limit));
+		}
+
+		Date afterDate = null;
+		UUID afterId = null;
+		if (!isEmpty(after)) {
+			String[] key = Cursor.decode(after, 2);
+			try {
+				if (key == null) {
+					throw new IllegalArgumentException();
+				}
+				// Uma data vazia é o cursor de uma Order sem data de confirmação.
+				afterDate = key[0].isEmpty() ? null : new Date(Long.parseLong(key[0]));
+				afterId = UUID.fromString(key[1]);
+			}
+			catch (IllegalArgumentException ex) {
+				return handleError(HttpStatus.BAD_REQUEST, String.format("O cursor [%s] não é válido.", after));
+			}
+		}
+
+		// Busca um registro a mais que o tamanho da página apenas para saber se existe uma próxima página.
+		List<Order> orders = repository.findByParameters(filter, afterDate, afterId, pageSize + 1);
+
+		// Uma página vazia após um cursor apenas indica o fim dos resultados.
+		if (afterId == null && orders.isEmpty()) {
+			return handleError(HttpStatus.NOT_FOUND, "Nenhuma Order encontrada para os parâmetros informados.");
+		}
+
+		if (orders.size() > pageSize) {
+			orders = orders.subList(0, pageSize);
+			Order last = orders.get(pageSize - 1);
+			Date lastDate = last.getConfirmationDate();
+			String nextCursor = Cursor.encode(lastDate == null ? "" : lastDate.getTime(), last.getId());
+			URI next = ServletUriComponentsBuilder
+					.fromCurrentRequest()
+					.replaceQueryParam("after", nextCursor)
+					.build()
+					.toUri();
+			return ResponseEntity.ok()
+					.header(NEXT_CURSOR_HEADER, nextCursor)
+					.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+					.body(orders);
+		}
+		return ResponseEntity.ok(orders);
+	}
+
+	/**
+	 * Recurso POST que recebe um JSON do tipo Order, com os seus itens, e a persiste no banco de dados. <br><br>
+	 *
+	 * A Order e todos os itens são inseridos em uma única transação, com os itens enviados em lote. A Order é criada
+	 * com a data de confirmação atual e o status PAYMENT_PENDING. <br>
+	 * Retorna o código 400 se as informações da Order estiverem incompletas, malformadas ou forem recusadas pelo banco
+	 * (ex.: um campo maior que a coluna), 404 se a Store informada
+	 * não existir, e código 201 Created juntamente com os dados da nova Order se a inserção for bem sucedida.
+	 *
+	 * @param newOrder - Nova Order para persistir.
+	 * @return Order ou ApiError
+	 */
+	@PostMapping("/orders")
+	public ResponseEntity<?> createOrder(@RequestBody Order newOrder) {
+
+		// Validação dos inputs
+		String error = validateNewOrder(newOrder);
+		if (error != null) {
+			return handleError(HttpStatus.BAD_REQUEST, error);
+		}
+
+		// Os IDs, a data e o status são sempre definidos pelo servidor.
+		newOrder.setId(null);
+		newOrder.setConfirmationDate(new Date());
+		newOrder.setStatus(OrderStatus.PAYMENT_PENDING);
+		newOrder.getItems().forEach(item -> item.setId(null));
+
+		// Os totais de vendas são registrados na mesma transação da criação, para serem aplicados no seu commit.
+		Order order;
+		try {
+			order = transactionTemplate.execute(tx -> {
+				Order created = repository.create(newOrder);
+				salesAggregates.orderCreated(created);
+				return created;
+			});
+		}
+		catch (DataIntegrityViolationException ex) {
+			// A Store é consultada somente aqui: a violação pode ser da FK da Store ou de outra restrição do banco
+			// (ex.: um campo maior que a coluna).
+			if (!storeRepository.existsById(newOrder.getStoreId())) {
+				return handleError(HttpStatus.NOT_FOUND, String.format("Nenhuma Store encontrada para o ID [%s]", newOrder.getStoreId()));
+			}
+			return handleError(HttpStatus.BAD_REQUEST, "A Order não pôde ser gravada: algum campo excede o tamanho "
+					+ "permitido ou é inválido.");
+		}
+
+		URI location = ServletUriComponentsBuilder
+				.fromCurrentRequest()
+				.path("/{id}")
+				.buildAndExpand(order.getId())
+				.toUri();
+
+		return ResponseEntity.created(location).body(order);
+	}
+
+	private String validateNewOrder(Order newOrder) {
+		if (newOrder == null) {
+			return "A informação está incompleta ou malformada.";
+		}
+		else if (newOrder.getStoreId() == null || isEmpty(newOrder.getAddress())) {
+			return "Os campos 'storeId' e 'address' são obrigatórios.";
+		}
+		else if (newOrder.getItems() == null || newOrder.getItems().isEmpty()) {
+			return "A Order deve possuir ao menos um item.";
+		}
+
+		for (int i = 0; i < newOrder.getItems().size(); i++) {
+			OrderItem item = newOrder.getItems().get(i);
+			if (item == null || isEmpty(item.getDescription())) {
+				return String.format("O campo 'description' do item [%d] é obrigatório.", i);
+			}
+			else if (item.getUnitPrice() == null || item.getUnitPrice().compareTo(BigDecimal.ZERO) <= 0) {
+				return String.format("O campo 'unitPrice' do item [%d] deve ser maior que zero.", i);
+			}
+			else if (item.getQuantity() <= 0) {
+				return String.format("O campo 'quantity' do item [%d] deve ser maior que zero.", i);
+			}
+		}
+		return null;
+	}
+
+	private Date parseDate(String value) {
+		try {
+			return Date.from(Instant.parse(value));
+		}
+		catch (DateTimeParseException ex) {
+			// Sem o horário, considera o início do dia em UTC.
+		}
+		try {
+			return Date.from(LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant());
+		}
+		catch (DateTimeParseException ex) {
+			return null;
+		}
+	}
+
+	private ResponseEntity<?> handleError(HttpStatus status, String message) {
+		return new ResponseEntity<>(new ApiError(status, message), status);
+	}
+
+}
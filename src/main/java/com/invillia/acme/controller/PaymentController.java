@@ -0,0 +1,149 @@
+package com.invillia.acme.controller;
+
+import static com.invillia.acme.utils.StringUtils.isEmpty;
+
+import java.net.URI;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.invillia.acme.exception.ApiError;
+import com.invillia.acme.model.Order;
+import com.invillia.acme.model.OrderStatus;
+import com.invillia.acme.model.Payment;
+import com.invillia.acme.repository.OrderRepository;
+import com.invillia.acme.repository.PaymentRepository;
+import com.invillia.acme.service.PaymentProcessor;
+
+/**
+ * Endpoint que contém as funcionalidades de criar e buscar objetos da entidade Payment. <br><br>
+ *
+ * Os Payments são processados de forma assíncrona: a criação apenas registra o Payment como PENDING e retorna
+ * 202 Accepted. O resultado deve ser consultado em "{server}/api/v1/payments/{id}".
+ *
+ * @author Daniel
+ * @version 1.0
+ *
+ */
+@RestController
+public class PaymentController {
+
+	static final String RETRY_AFTER_SECONDS = "5";
+
+	private final PaymentRepository repository;
+	private final OrderRepository orderRepository;
+	private final PaymentProcessor processor;
+
+	@Autowired
+	public PaymentController(PaymentRepository repository, OrderRepository orderRepository, PaymentProcessor processor) {
+		this.repository = repository;
+		this.orderRepository = orderRepository;
+		this.processor = processor;
+	}
+
+	/**
+	 * Recurso GET que busca e retorna um Payment a partir do seu id, para que o cliente acompanhe o processamento.
+	 *
+	 * @param id - <b>UUID</b> do Payment desejado.
+	 * @return Payment ou ApiError.
+	 */
+	@GetMapping("/payments/{id}")
+	public ResponseEntity<?> retrievePaymentById(@PathVariable String id) {
+		if (isEmpty(id)) {
+			return handleError(HttpStatus.BAD_REQUEST, "O ID não foi informado");
+		}
+		try {
+			UUID uuid = UUID.fromString(id);
+			Payment payment = repository.findById(uuid).get();
+			return ResponseEntity.ok(payment);
+		}
+		catch (IllegalArgumentException ex) {
+			return handleError(HttpStatus.BAD_REQUEST, String.format("O ID [%s] não é válido.", id));
+		}
+		catch (NoSuchElementException ex) {
+			return handleError(HttpStatus.NOT_FOUND, String.format("Nenhum Payment encontrado para o ID [%s]", id));
+		}
+	}
+
+	/**
+	 * Recurso POST que recebe um JSON do tipo Payment e o registra para a Order informada. <br><br>
+	 *
+	 * O Payment é criado como PENDING e processado em segundo plano, então o retorno é 202 Accepted com o Payment
+	 * e o header Location para consulta. <br>
+	 * Retorna 400 se o cartão não for informado ou o ID for inválido, 404 se a Order não existir, 409 se a Order não
+	 * aguardar pagamento ou já possuir um Payment em andamento, e 503 se a fila de processamento estiver cheia.
+	 *
+	 * @param newPayment - JSON com o 'creditCard'.
+	 * @param id - UUID da Order.
+	 * @return Payment ou ApiError.
+	 */
+	@PostMapping("/orders/{id}/payments")
+	public ResponseEntity<?> createPayment(@RequestBody Payment newPayment, @PathVariable String id) {
+
+		// Validação dos inputs
+		if (newPayment == null || newPayment.getCreditCard() == null) {
+			return handleError(HttpStatus.BAD_REQUEST, "O campo 'creditCard' é obrigatório.");
+		}
+
+		Order order;
+		try {
+			order = orderRepository.findById(UUID.fromString(id)).get();
+		}
+		catch (IllegalArgumentException ex) {
+			return handleError(HttpStatus.BAD_REQUEST, String.format("O ID [%s] não é válido.", id));
+		}
+		catch (NoSuchElementException ex) {
+			return handleError(HttpStatus.NOT_FOUND, String.format("Nenhuma Order encontrada para o ID [%s]", id));
+		}
+
+		if (order.getStatus() != OrderStatus.PAYMENT_PENDING) {
+			return handleError(HttpStatus.CONFLICT, String.format("A Order [%s] não está aguardando pagamento.", id));
+		}
+
+		// Back-pressure: com a fila cheia, o cliente deve tentar novamente mais tarde.
+		if (!processor.hasCapacity()) {
+			return new ResponseEntity<>(new ApiError(HttpStatus.SERVICE_UNAVAILABLE,
+					"O processamento de pagamentos está sobrecarregado. Tente novamente mais tarde."),
+					retryAfter(), HttpStatus.SERVICE_UNAVAILABLE);
+		}
+
+		// A verificação da Order e a criação do Payment são atômicas (PaymentProcessor.register).
+		Payment payment = processor.register(order, newPayment);
+		if (payment == null) {
+			return handleError(HttpStatus.CONFLICT, String.format("A Order [%s] não está aguardando pagamento.", id));
+		}
+
+		// Se a fila encher entre a verificação e a submissão, o Payment continua PENDING e é submetido novamente
+		// pela recuperação periódica do PaymentProcessor.
+		processor.submit(payment.getId());
+
+		URI location = ServletUriComponentsBuilder
+				.fromCurrentContextPath()
+				.path("/payments/{id}")
+				.buildAndExpand(payment.getId())
+				.toUri();
+
+		return ResponseEntity.accepted().location(location).body(payment);
+	}
+
+	private HttpHeaders retryAfter() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+		return headers;
+	}
+
+	private ResponseEntity<?> handleError(HttpStatus status, String message) {
+		return new ResponseEntity<>(new ApiError(status, message), status);
+	}
+
+}
@@ -0,0 +1,132 @@
+package com.invillia.acme.controller;
+
+import static com.invillia.acme.utils.StringUtils.isEmpty;
+
+import java.net.URI;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.invillia.acme.dto.RefundResult;
+import com.invillia.acme.exception.ApiError;
+import com.invillia.acme.model.Refund;
+import com.invillia.acme.model.RefundType;
+import com.invillia.acme.repository.RefundRepository;
+import com.invillia.acme.service.RefundService;
+
+/**
+ * Endpoint que contém as funcionalidades de criar e buscar objetos da entidade Refund. <br><br>
+ *
+ * Uma Order pode ser estornada inteira ou item a item, até 10 dias após a confirmação e somente se o pagamento
+ * tiver sido aprovado. As regras são aplicadas pelo RefundService.
+ *
+ * @author Daniel
+ * @version 1.0
+ *
+ */
+@RestController
+public class RefundController {
+
+	private final RefundRepository repository;
+	private final RefundService service;
+
+	@Autowired
+	public RefundController(RefundRepository repository, RefundService service) {
+		this.repository = repository;
+		this.service = service;
+	}
+
+	/**
+	 * Recurso GET que busca e retorna um Refund a partir do seu id.
+	 *
+	 * @param id - <b>UUID</b> do Refund desejado.
+	 * @return Refund ou ApiError.
+	 */
+	@GetMapping("/refunds/{id}")
+	public ResponseEntity<?> retrieveRefundById(@PathVariable String id) {
+		if (isEmpty(id)) {
+			return handleError(HttpStatus.BAD_REQUEST, "O ID não foi informado");
+		}
+		try {
+			UUID uuid = UUID.fromString(id);
+			Refund refund = repository.findById(uuid).get();
+			return ResponseEntity.ok(refund);
+		}
+		catch (IllegalArgumentException ex) {
+			return handleError(HttpStatus.BAD_REQUEST, String.format("O ID [%s] não é válido.", id));
+		}
+		catch (NoSuchElementException ex) {
+			return handleError(HttpStatus.NOT_FOUND, String.format("Nenhum Refund encontrado para o ID [%s]", id));
+		}
+	}
+
+	/**
+	 * Recurso POST que estorna a Order informada, inteira (<b>type</b> ORDER) ou apenas um item (<b>type</b>
+	 * ORDER_ITEM, com o <b>orderItemId</b>). <br><br>
+	 *
+	 * Retorna 201 Created com o Refund e o seu valor, 400 se a requisição for inválida, 404 se a Order ou o item não
+	 * existirem, e 409 se a Order não puder ser estornada (pagamento não aprovado, prazo encerrado ou já estornada),
+	 * se o item já tiver sido estornado ou se todos os itens já tiverem sido estornados individualmente.
+	 *
+	 * @param newRefund - JSON com o 'type' e, para itens, o 'orderItemId'.
+	 * @param id - UUID da Order.
+	 * @return Refund ou ApiError.
+	 */
+	@PostMapping("/orders/{id}/refunds")
+	public ResponseEntity<?> createRefund(@RequestBody Refund newRefund, @PathVariable String id) {
+
+		// Validação dos inputs
+		if (newRefund == null || newRefund.getType() == null) {
+			return handleError(HttpStatus.BAD_REQUEST, "O campo 'type' é obrigatório (ORDER ou ORDER_ITEM).");
+		}
+		else if (newRefund.getType() == RefundType.ORDER_ITEM && newRefund.getOrderItemId() == null) {
+			return handleError(HttpStatus.BAD_REQUEST, "O campo 'orderItemId' é obrigatório para o estorno de um item.");
+		}
+
+		UUID orderId;
+		try {
+			orderId = UUID.fromString(id);
+		}
+		catch (IllegalArgumentException ex) {
+			return handleError(HttpStatus.BAD_REQUEST, String.format("O ID [%s] não é válido.", id));
+		}
+
+		RefundResult result;
+		try {
+			result = newRefund.getType() == RefundType.ORDER
+					? service.refundOrder(orderId)
+					: service.refundItem(orderId, newRefund.getOrderItemId());
+		}
+		catch (DataIntegrityViolationException ex) {
+			// Dois estornos simultâneos do mesmo item: o índice único mantém apenas o primeiro.
+			return handleError(HttpStatus.CONFLICT, String.format("O item [%s] já foi estornado.", newRefund.getOrderItemId()));
+		}
+
+		if (result.getRefund() == null) {
+			return handleError(result.getStatus(), result.getMessage());
+		}
+
+		URI location = ServletUriComponentsBuilder
+				.fromCurrentContextPath()
+				.path("/refunds/{id}")
+				.buildAndExpand(result.getRefund().getId())
+				.toUri();
+
+		return ResponseEntity.created(location).body(result.getRefund());
+	}
+
+	private ResponseEntity<?> handleError(HttpStatus status, String message) {
+		return new ResponseEntity<>(new ApiError(status, message), status);
+	}
+
+}
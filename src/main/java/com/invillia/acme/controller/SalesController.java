@@ -0,0 +1,89 @@
+package com.invillia.acme.controller;
+
+import static com.invillia.acme.utils.StringUtils.isEmpty;
+
+import java.util.Collections;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.invillia.acme.exception.ApiError;
+import com.invillia.acme.repository.StoreRepository;
+import com.invillia.acme.service.SalesAggregates;
+import com.invillia.acme.utils.Uuids;
+
+/**
+ * Endpoint que contém as estatísticas de vendas por Store: receita, Orders por status e total estornado. <br><br>
+ *
+ * Os totais são mantidos em memória pelo SalesAggregates, então a consulta não executa GROUP BY no banco.
+ *
+ * @author Daniel
+ * @version 1.0
+ *
+ */
+@RestController
+public class SalesController {
+
+	private final StoreRepository storeRepository;
+	private final SalesAggregates salesAggregates;
+
+	@Autowired
+	public SalesController(StoreRepository storeRepository, SalesAggregates salesAggregates) {
+		this.storeRepository = storeRepository;
+		this.salesAggregates = salesAggregates;
+	}
+
+	/**
+	 * Recurso GET que retorna os totais de vendas da Store.
+	 *
+	 * <br><br>
+	 *
+	 * Retorna 200 com o StoreSales, 400 se o ID for inválido, 404 se a Store não existir e 503 enquanto a carga
+	 * inicial dos totais não terminar. A existência da Store é verificada pelo cache de Stores.
+	 *
+	 * @param id - <b>UUID</b> da Store.
+	 * @return StoreSales ou ApiError.
+	 */
+	@GetMapping("/stores/{id}/sales")
+	public ResponseEntity<?> retrieveStoreSales(@PathVariable String id) {
+		if (isEmpty(id)) {
+			return handleError(HttpStatus.BAD_REQUEST, "O ID não foi informado");
+		}
+		UUID uuid = Uuids.parse(id);
+		if (uuid == null) {
+			return handleError(HttpStatus.BAD_REQUEST, String.format("O ID [%s] não é válido.", id));
+		}
+		if (!storeRepository.findCachedById(uuid).isPresent()) {
+			return handleError(HttpStatus.NOT_FOUND, String.format("Nenhuma Store encontrada para o ID [%s]", id));
+		}
+		if (!salesAggregates.isLoaded()) {
+			return handleError(HttpStatus.SERVICE_UNAVAILABLE, "Os totais de vendas ainda estão sendo carregados. "
+					+ "Tente novamente em instantes.");
+		}
+		return ResponseEntity.ok(salesAggregates.get(uuid));
+	}
+
+	/**
+	 * Recurso POST que recalcula os totais de vendas de todas as Stores a partir do banco. <br><br>
+	 *
+	 * Usado para recuperação, por exemplo após alterações feitas diretamente no banco. Retorna 200 com a quantidade
+	 * de Stores que possuem Orders.
+	 *
+	 * @return quantidade de Stores recalculadas.
+	 */
+	@PostMapping("/sales/rebuild")
+	public ResponseEntity<?> rebuildSales() {
+		return ResponseEntity.ok(Collections.singletonMap("stores", salesAggregates.rebuild()));
+	}
+
+	private ResponseEntity<?> handleError(HttpStatus status, String message) {
+		return new ResponseEntity<>(new ApiError(status, message), status);
+	}
+
+}
@@ -2,27 +2,57 @@ package com.invillia.acme.controller;
 
 import static com.invillia.acme.utils.StringUtils.isEmpty;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.NoSuchElementException;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.invillia.acme.dto.BatchItemResult;
+import com.invillia.acme.dto.StoreView;
 import com.invillia.acme.exception.ApiError;
 import com.invillia.acme.model.Store;
 import com.invillia.acme.repository.StoreRepository;
+import com.invillia.acme.utils.Cursor;
+import com.invillia.acme.utils.ETags;
+import com.invillia.acme.utils.Uuids;
 
 /**
  * Endpoint que contém as funcionalidades de criar, buscar e atualizar objetos da entidade Store. <br><br>
@@ -36,11 +66,32 @@ import com.invillia.acme.repository.StoreRepository;
 @RestController
 public class StoreController {
 
+	static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+	static final int DEFAULT_PAGE_SIZE = 50;
+	static final int MAX_PAGE_SIZE = 500;
+
+	static final String NDJSON_VALUE = "application/x-ndjson";
+	static final MediaType NDJSON = MediaType.parseMediaType(NDJSON_VALUE);
+	static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+	static final int BATCH_SIZE = 500;
+	static final int MAX_BATCH_ITEMS = 10000;
+
+	static final String PREFER_HEADER = "Prefer";
+	static final String RETURN_MINIMAL = "return=minimal";
+
 	private final StoreRepository repository;
+	private final ObjectMapper objectMapper;
+	private final CacheControl cacheControl;
+	private final boolean serializedCache;
 
 	@Autowired
-	public StoreController(StoreRepository repository) {
+	public StoreController(StoreRepository repository, ObjectMapper objectMapper,
+			@Value("${acme.stores.cache-max-age-seconds:30}") long cacheMaxAgeSeconds,
+			@Value("${acme.stores.serialized-cache:true}") boolean serializedCache) {
 		this.repository = repository;
+		this.objectMapper = objectMapper;
+		this.cacheControl = CacheControl.maxAge(cacheMaxAgeSeconds, TimeUnit.SECONDS).cachePublic();
+		this.serializedCache = serializedCache;
 	}
 
 	/**
@@ -50,7 +101,16 @@ public class StoreController {
 	 * 
 	 * Caso o ID seja válido e a Store existir, o código do retorno será 200 e o conteúdo será a Store pesquisada.<br>
 	 * Se o ID for inválido, o código será 400 e o retorno será do tipo ApiError.<br>
-	 * Se o ID for válido mas a Store não existe, o retorno será 404 e o conteúdo também será do tipo ApiError.
+	 * Se o ID for válido mas a Store não existe, o retorno será 404 e o conteúdo também será do tipo ApiError.<br>
+	 * O header <b>ETag</b> identifica a versão da Store, para ser usado no If-Match do PUT.
+	 * 
+	 * <br><br>
+	 * 
+	 * Se o header <b>If-None-Match</b> contiver o ETag atual, o retorno é 304 sem conteúdo: o ETag vem da Store
+	 * em cache, então a resposta não consulta o banco nem serializa a Store. O header <b>Cache-Control</b> permite
+	 * que clientes e CDNs reutilizem a resposta por <b>acme.stores.cache-max-age-seconds</b>. O JSON da Store
+	 * também é mantido no cache (<b>acme.stores.serialized-cache</b>), então uma Store em cache não é serializada
+	 * novamente.
 	 * 
 	 * @param id - <b>UUID</b> da Store desejada.
 	 * @return Store ou ApiError.
@@ -60,17 +120,17 @@ public class StoreController {
 		if (isEmpty(id)) {
 			return handleError(HttpStatus.BAD_REQUEST, "O ID não foi informado");
 		}
-		try {
-			UUID uuid = UUID.fromString(id);
-			Store store = repository.findById(uuid).get();
-			return ResponseEntity.ok(store);
-		}
-		catch (IllegalArgumentException ex) {
+		// Os IDs inválidos e as Stores inexistentes são tratados sem exceções, que custam mais que a própria busca.
+		UUID uuid = Uuids.parse(id);
+		if (uuid == null) {
 			return handleError(HttpStatus.BAD_REQUEST, String.format("O ID [%s] não é válido.", id));
 		}
-		catch (NoSuchElementException ex) {
+		StoreView store = repository.findCachedById(uuid).orElse(null);
+		if (store == null) {
 			return handleError(HttpStatus.NOT_FOUND, String.format("Nenhuma Store encontrada para o ID [%s]", id));
 		}
+		// O 304 do If-None-Match é tratado pelo Spring ao comparar o ETag da resposta, antes de escrever o corpo.
+		return body(ResponseEntity.ok().cacheControl(cacheControl).eTag(ETags.of(store.getVersion())), store);
 	}
 	
 	/**
@@ -81,15 +141,30 @@ public class StoreController {
 	 * Retorna código 404 e o tipo ApiError caso nenhuma Store exista com os parâmetros. Se existir ao menos uma,
 	 *  retorna uma List&lt;Store&gt; com código 200.
 	 * 
+	 * <br><br>
+	 * 
+	 * O resultado é paginado por cursor (keyset) na ordem (name, id). Cada página tem no máximo <b>limit</b> Stores e,
+	 * se houver mais resultados, o cursor da próxima página é retornado no header <b>X-Next-Cursor</b> (e no header
+	 * <b>Link</b>), para ser informado no parâmetro <b>after</b>.
+	 * 
+	 * <br><br>
+	 * 
+	 * A página tem um ETag fraco derivado dos IDs e versões das Stores retornadas; com o header <b>If-None-Match</b>
+	 * igual a ele, o retorno é 304 sem serializar a página.
+	 * 
 	 * @param name - Nome da Store.
 	 * @param address - Endereço da Store.
+	 * @param limit - Quantidade máxima de Stores na página (padrão 50, máximo 500).
+	 * @param after - Cursor retornado pela página anterior.
 	 * @return List&lt;Store&gt; ou ApiError
 	 */
 	@GetMapping("/stores")
 	public ResponseEntity<?> retrieveStoreByParameters(@RequestParam(value = "name", required = false) String name,
-			@RequestParam(value = "address", required = false) String address) {
+			@RequestParam(value = "address", required = false) String address,
+			@RequestParam(value = "limit", required = false) Integer limit,
+			@RequestParam(value = "after", required = false) String after) {
 		
-		List<Store> stores = null;
+		List<StoreView> stores = null;
 		
 		// Valida os inputs
 		if (isEmpty(name) && isEmpty(address)) {
@@ -98,15 +173,137 @@ public class StoreController {
 					+ "Para consultar pelo ID, utilize o caminho //stores//{id}");
 		}
 		
-		stores = repository.findByParameters(name, address);
+		int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+		if (pageSize < 1) {
+			return handleError(HttpStatus.BAD_REQUEST, String.format("O parâmetro 'limit' [%s] não é válido.", limit));
+		}
+		
+		String afterName = null;
+		UUID afterId = null;
+		if (!isEmpty(after)) {
+			String[] key = Cursor.decode(after, 2);
+			afterId = key == null ? null : Uuids.parse(key[1]);
+			if (afterId == null) {
+				return handleError(HttpStatus.BAD_REQUEST, String.format("O cursor [%s] não é válido.", after));
+			}
+			afterName = key[0];
+		}
+		
+		// Busca um registro a mais que o tamanho da página apenas para saber se existe uma próxima página.
+		stores = repository.findByParameters(name, address, afterName, afterId, pageSize + 1);
 
 		// Se os campos são válidos mas nenhuma Store foi encontrada, retorna 404. 
-		if (stores == null || stores.isEmpty()) {
+		// Uma página vazia após um cursor apenas indica o fim dos resultados.
+		if (afterId == null && (stores == null || stores.isEmpty())) {
 			return handleError(HttpStatus.NOT_FOUND, String.format("Nenhuma Store encontrada para os parâmetros Name [%s] ou Address [%s]", name, address));
 		}
 
-		// Caso contrário retorna a lista de Stores encontrada.
-		return ResponseEntity.ok(stores);
+		// Caso contrário retorna a página de Stores encontrada.
+		if (stores.size() > pageSize) {
+			stores = stores.subList(0, pageSize);
+			StoreView last = stores.get(pageSize - 1);
+			String nextCursor = Cursor.encode(last.getName(), last.getId());
+			URI next = ServletUriComponentsBuilder
+					.fromCurrentRequest()
+					.replaceQueryParam("after", nextCursor)
+					.build()
+					.toUri();
+			return ResponseEntity.ok()
+					.cacheControl(cacheControl)
+					.eTag(pageETag(stores))
+					.header(NEXT_CURSOR_HEADER, nextCursor)
+					.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+					.body(stores);
+		}
+		return ResponseEntity.ok().cacheControl(cacheControl).eTag(pageETag(stores)).body(stores);
+	}
+
+	private String pageETag(List<StoreView> stores) {
+		// Qualquer alteração numa Store da página incrementa a sua versão, e qualquer Store nova altera os IDs.
+		long hash = stores.size();
+		for (StoreView store : stores) {
+			hash = 31 * hash + store.getId().getMostSignificantBits();
+			hash = 31 * hash + store.getId().getLeastSignificantBits();
+			hash = 31 * hash + (store.getVersion() == null ? 0 : store.getVersion());
+		}
+		return ETags.weak(hash);
+	}
+
+	/**
+	 * Recurso GET que exporta todas as Stores, no formato NDJSON (padrão) ou CSV. <br><br>
+	 * 
+	 * As Stores são lidas por um cursor forward-only e escritas diretamente na resposta à medida que são lidas,
+	 * de forma que o consumo de memória é constante independentemente da quantidade de registros.
+	 * 
+	 * @param format - <b>ndjson</b> ou <b>csv</b>.
+	 * @return Stream com as Stores ou ApiError.
+	 */
+	@GetMapping("/stores/export")
+	public ResponseEntity<StreamingResponseBody> exportStores(@RequestParam(value = "format", defaultValue = "ndjson") String format) {
+		if ("csv".equalsIgnoreCase(format)) {
+			return ResponseEntity.ok().contentType(CSV).body(this::writeCsv);
+		}
+		else if ("ndjson".equalsIgnoreCase(format)) {
+			return ResponseEntity.ok().contentType(NDJSON).body(this::writeNdjson);
+		}
+		
+		// O retorno precisa ser um StreamingResponseBody, então o ApiError é escrito diretamente na resposta.
+		ApiError error = new ApiError(HttpStatus.BAD_REQUEST, String.format("O formato [%s] não é suportado. "
+				+ "Os formatos aceitos são 'ndjson' e 'csv'.", format));
+		return ResponseEntity.badRequest()
+				.contentType(MediaType.APPLICATION_JSON_UTF8)
+				.body(out -> objectMapper.writeValue(out, error));
+	}
+
+	private void writeNdjson(OutputStream out) throws IOException {
+		ObjectWriter writer = objectMapper.writerFor(Store.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		OutputStream buffered = new BufferedOutputStream(out);
+		try {
+			repository.forEachStore(store -> {
+				try {
+					writer.writeValue(buffered, store);
+					buffered.write('\n');
+				}
+				catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			});
+		}
+		catch (UncheckedIOException ex) {
+			throw ex.getCause();
+		}
+		buffered.flush();
+	}
+
+	private void writeCsv(OutputStream out) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		writer.write("id,name,address\n");
+		try {
+			repository.forEachStore(store -> {
+				try {
+					writer.write(store.getId().toString());
+					writer.write(',');
+					writer.write(csv(store.getName()));
+					writer.write(',');
+					writer.write(csv(store.getAddress()));
+					writer.write('\n');
+				}
+				catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			});
+		}
+		catch (UncheckedIOException ex) {
+			throw ex.getCause();
+		}
+		writer.flush();
+	}
+
+	private String csv(String value) {
+		if (value == null) {
+			return "";
+		}
+		return "\"" + value.replace("\"", "\"\"") + "\"";
 	}
 
 	/** 
@@ -122,15 +319,14 @@ public class StoreController {
 	public ResponseEntity<?> createStore(@RequestBody Store newStore) throws URISyntaxException {
 
 		// Validação dos inputs
-		if (newStore == null) {
-			return handleError(HttpStatus.BAD_REQUEST, "A informação está incompleta ou malformada.");
-		}
-		else if (isEmpty(newStore.getAddress()) || isEmpty(newStore.getName())) {
-			return handleError(HttpStatus.BAD_REQUEST, "Os campos 'name' e 'address' são obrigatórios.");
+		String error = validateNewStore(newStore);
+		if (error != null) {
+			return handleError(HttpStatus.BAD_REQUEST, error);
 		}
 		
-		// Impede que alguém tente utilizar o método POST para atualizar uma Store, informando o UUID no request
-		newStore.setId(null);
+		// Impede que alguém tente utilizar o método POST para atualizar uma Store, informando o UUID no request.
+		// O novo ID é gerado pela aplicação, e não pelo banco.
+		newStore.setId(UUID.randomUUID());
 		
 		// Persiste a Store e retorna o objeto para consulta (incluindo o novo ID)
 		Store store = repository.save(newStore);
@@ -141,20 +337,133 @@ public class StoreController {
 				.buildAndExpand(newStore.getId())
 				.toUri();
 		
-		return ResponseEntity.created(location).body(store);
+		return ResponseEntity.created(location).eTag(ETags.of(store.getVersion())).body(store);
+	}
+
+	/**
+	 * Recurso POST que recebe um array JSON de Stores e as persiste em lote. <br><br>
+	 * 
+	 * Cada Store passa pela mesma validação do POST individual. As válidas são inseridas em lotes JDBC, e o retorno
+	 * é uma lista com o resultado de cada item, na ordem em que foram enviados. O código do retorno é 201 se todas as
+	 * Stores foram criadas, ou 207 caso alguma tenha falhado.
+	 * 
+	 * @param newStores - Stores para persistir.
+	 * @return List&lt;BatchItemResult&gt; ou ApiError
+	 */
+	@PostMapping(value = "/stores/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<?> createStores(@RequestBody List<Store> newStores) {
+		if (newStores == null || newStores.isEmpty()) {
+			return handleError(HttpStatus.BAD_REQUEST, "Nenhuma Store foi informada.");
+		}
+		return createInBatches(newStores.iterator());
+	}
+
+	/**
+	 * Recurso POST que recebe as Stores no formato NDJSON (uma Store em JSON por linha) e as persiste em lote. <br><br>
+	 * 
+	 * O corpo da requisição é lido como um stream, de forma que apenas um lote de Stores fica em memória por vez.
+	 * O retorno é o mesmo do recurso que recebe um array JSON.
+	 * 
+	 * @param request - Requisição cujo corpo contém as Stores em NDJSON.
+	 * @return List&lt;BatchItemResult&gt; ou ApiError
+	 * @throws IOException 
+	 */
+	@PostMapping(value = "/stores/batch", consumes = NDJSON_VALUE)
+	public ResponseEntity<?> createStoresFromStream(HttpServletRequest request) throws IOException {
+		try (MappingIterator<Store> stores = objectMapper.readerFor(Store.class).readValues(request.getInputStream())) {
+			return createInBatches(stores);
+		}
+	}
+
+	private ResponseEntity<?> createInBatches(Iterator<Store> newStores) {
+		List<BatchItemResult> results = new ArrayList<>();
+		List<Store> batch = new ArrayList<>(BATCH_SIZE);
+		int index = 0;
+		
+		try {
+			while (newStores.hasNext()) {
+				if (index >= MAX_BATCH_ITEMS) {
+					results.add(BatchItemResult.error(index, HttpStatus.PAYLOAD_TOO_LARGE,
+							String.format("O limite de %d Stores por requisição foi atingido.", MAX_BATCH_ITEMS)));
+					break;
+				}
+				
+				Store newStore = newStores.next();
+				String error = validateNewStore(newStore);
+				if (error != null) {
+					results.add(BatchItemResult.error(index, HttpStatus.BAD_REQUEST, error));
+				}
+				else {
+					newStore.setId(UUID.randomUUID());
+					batch.add(newStore);
+					results.add(BatchItemResult.created(index, newStore.getId()));
+				}
+				index++;
+				
+				if (batch.size() == BATCH_SIZE) {
+					insertBatch(batch, results);
+				}
+			}
+		}
+		catch (RuntimeJsonMappingException ex) {
+			// Uma linha malformada impede a leitura do restante do stream.
+			results.add(BatchItemResult.error(index, HttpStatus.BAD_REQUEST, "A informação está incompleta ou malformada."));
+		}
+		insertBatch(batch, results);
+		
+		if (results.isEmpty()) {
+			return handleError(HttpStatus.BAD_REQUEST, "Nenhuma Store foi informada.");
+		}
+		boolean allCreated = results.stream().allMatch(result -> result.getStatus() == HttpStatus.CREATED);
+		return ResponseEntity.status(allCreated ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS).body(results);
+	}
+
+	private void insertBatch(List<Store> batch, List<BatchItemResult> results) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		try {
+			repository.insertAll(batch);
+		}
+		catch (DataAccessException ex) {
+			// Se o lote falhar, nenhuma das Stores dele foi persistida. Os resultados do lote são sempre os últimos
+			// resultados de sucesso adicionados à lista.
+			int pending = batch.size();
+			for (int i = results.size() - 1; i >= 0 && pending > 0; i--) {
+				BatchItemResult result = results.get(i);
+				if (result.getStatus() == HttpStatus.CREATED) {
+					results.set(i, BatchItemResult.error(result.getIndex(), HttpStatus.INTERNAL_SERVER_ERROR,
+							"Não foi possível persistir a Store."));
+					pending--;
+				}
+			}
+		}
+		batch.clear();
 	}
 
 	/**
 	 * Recurso PUT que recebe um JSON do tipo Store e atualiza os dados dela no banco. <br>
 	 * Retorna código 200 e os dados da entidade salva em caso de sucesso, ou código 400 e ApiError
-	 * em caso de dados inválidos no JSON, ou código 400 se o ID informado não existir.
+	 * em caso de dados inválidos no JSON, ou código 404 se o ID informado não existir.
+	 * 
+	 * <br><br>
+	 * 
+	 * Somente os campos informados são alterados, em um único UPDATE que não consulta a Store antes. Com o header
+	 * <b>If-Match</b> (o ETag retornado pelo GET), a alteração só é aplicada se a Store não tiver sido alterada
+	 * desde então; caso contrário o retorno é 412 Precondition Failed e o cliente deve buscar a Store novamente. A
+	 * comparação é forte: um ETag fraco (W/"n") nunca corresponde e também retorna 412.
+	 * Com o header <b>Prefer: return=minimal</b>, o retorno é 204 sem conteúdo, evitando a leitura da Store salva.
 	 * 
 	 * @param newStore - JSON que contém os dados para atualizar da Store.
 	 * @param id - UUID da Store que se deseja atualizar.
+	 * @param ifMatch - ETag da versão da Store conhecida pelo cliente.
+	 * @param prefer - "return=minimal" para não retornar a Store.
 	 * @return - Store ou ApiError.
 	 */
 	@PutMapping("/stores/{id}")
-	public ResponseEntity<?> updateStore(@RequestBody Store newStore, @PathVariable String id) throws Exception {
+	public ResponseEntity<?> updateStore(@RequestBody Store newStore, @PathVariable String id,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+			@RequestHeader(value = PREFER_HEADER, required = false) String prefer) {
 		
 		// Validação dos inputs
 		if (newStore == null) {
@@ -167,37 +476,75 @@ public class StoreController {
 			return handleError(HttpStatus.BAD_REQUEST, "É necessário informar ao menos um dos campos para atualizar a Store.");
 		}
 		
+		UUID uuid = Uuids.parse(id);
+		if (uuid == null) {
+			return handleError(HttpStatus.BAD_REQUEST, String.format("O ID [%s] não é válido.", id));
+		}
+		
 		// Somente os campos informados serão atualizados. Caso o request venha apenas com 'name' ou 'address', o valor
 		// antigo do campo omitido é preservado. 
-		try {
-			UUID uuid = UUID.fromString(id);
-			newStore.setId(uuid);
-			Store store = updateAndSave(uuid, newStore);
-			return ResponseEntity.ok(store);
+		String name = isEmpty(newStore.getName()) ? null : newStore.getName();
+		String address = isEmpty(newStore.getAddress()) ? null : newStore.getAddress();
+		
+		Long expectedVersion = null;
+		int updated;
+		if (ifMatch == null || ETags.ANY.equals(ifMatch.trim())) {
+			updated = repository.update(uuid, name, address);
 		}
-		catch (IllegalArgumentException ex) {
-			return handleError(HttpStatus.BAD_REQUEST, String.format("O ID [%s] não é válido.", id));
+		else {
+			expectedVersion = ETags.parseVersion(ifMatch);
+			updated = expectedVersion == null ? 0 : repository.update(uuid, name, address, expectedVersion);
 		}
-		catch (NoSuchElementException ex) {
+		
+		if (updated == 0) {
+			// Somente no caminho de erro a existência da Store é consultada, para diferenciar o 412 do 404.
+			if (ifMatch != null && repository.existsById(uuid)) {
+				return handleError(HttpStatus.PRECONDITION_FAILED, String.format("A Store [%s] foi alterada por outra "
+						+ "requisição ou o If-Match [%s] não é válido. Busque a Store novamente.", id, ifMatch));
+			}
 			return handleError(HttpStatus.NOT_FOUND, String.format("Nenhuma Store encontrada para o ID [%s]", id));
 		}
-	}
-		
-
-	private Store updateAndSave(UUID uuid, Store newStore) {
-		
-		Store store = repository.findById(uuid).get();
 		
-		if (!isEmpty(newStore.getName())) {
-			store.setName(newStore.getName());
+		if (RETURN_MINIMAL.equalsIgnoreCase(prefer)) {
+			ResponseEntity.HeadersBuilder<?> noContent = ResponseEntity.noContent();
+			if (expectedVersion != null) {
+				noContent.eTag(ETags.of(expectedVersion + 1));
+			}
+			return noContent.build();
 		}
 		
-		if (!isEmpty(newStore.getAddress())) {
-			store.setAddress(newStore.getAddress());
+		// A leitura passa pelo cache (que o UPDATE acabou de invalidar) e já o preenche para os próximos GETs.
+		StoreView store = repository.findCachedById(uuid).orElse(null);
+		if (store == null) {
+			return handleError(HttpStatus.NOT_FOUND, String.format("Nenhuma Store encontrada para o ID [%s]", id));
 		}
-		
-		repository.save(store);
-		return store;
+		return body(ResponseEntity.ok().eTag(ETags.of(store.getVersion())), store);
+	}
+	
+	/**
+	 * Com 'acme.stores.serialized-cache' habilitado, o corpo é o JSON já serializado da StoreView em cache, escrito
+	 * diretamente na resposta (ByteArrayHttpMessageConverter), sem passar pelo Jackson a cada requisição.
+	 */
+	private ResponseEntity<?> body(ResponseEntity.BodyBuilder response, StoreView store) {
+		if (serializedCache) {
+			try {
+				return response.contentType(MediaType.APPLICATION_JSON_UTF8).body(store.toJson(objectMapper));
+			}
+			catch (JsonProcessingException ex) {
+				// Segue com a serialização normal, que reportará o erro.
+			}
+		}
+		return response.body(store);
+	}
+
+	private String validateNewStore(Store newStore) {
+		if (newStore == null) {
+			return "A informação está incompleta ou malformada.";
+		}
+		else if (isEmpty(newStore.getAddress()) || isEmpty(newStore.getName())) {
+			return "Os campos 'name' e 'address' são obrigatórios.";
+		}
+		return null;
 	}
 	
 	private ResponseEntity<?> handleError(HttpStatus status, String message) {
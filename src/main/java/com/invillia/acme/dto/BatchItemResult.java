@@ -0,0 +1,53 @@
+package com.invillia.acme.dto;
+
+import java.util.UUID;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Resultado individual de um item enviado em uma operação em lote. <br><br>
+ * 
+ * O <b>index</b> é a posição do item na requisição; <b>id</b> só é preenchido quando o item foi criado e
+ * <b>message</b> só é preenchida quando houve erro.
+ * 
+ * @author Daniel
+ */
+public class BatchItemResult {
+
+	private int index;
+	private HttpStatus status;
+	private UUID id;
+	private String message;
+
+	public BatchItemResult(int index, HttpStatus status, UUID id, String message) {
+		this.index = index;
+		this.status = status;
+		this.id = id;
+		this.message = message;
+	}
+
+	public static BatchItemResult created(int index, UUID id) {
+		return new BatchItemResult(index, HttpStatus.CREATED, id, null);
+	}
+
+	public static BatchItemResult error(int index, HttpStatus status, String message) {
+		return new BatchItemResult(index, status, null, message);
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public HttpStatus getStatus() {
+		return status;
+	}
+
+	public UUID getId() {
+		return id;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+}
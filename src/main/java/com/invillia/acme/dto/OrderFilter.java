@@ -0,0 +1,64 @@
+package com.invillia.acme.dto;
+
+import java.util.Date;
+import java.util.UUID;
+
+import com.invillia.acme.model.OrderStatus;
+
+/**
+ * Parâmetros da busca de Orders. <br><br>
+ *
+ * Os campos nulos não são considerados no filtro. O intervalo de datas é fechado no início (<b>from</b>) e aberto
+ * no fim (<b>to</b>), e o <b>address</b> é buscado por conteúdo, sem diferenciar maiúsculas.
+ *
+ * @author Daniel
+ */
+public class OrderFilter {
+
+	private UUID storeId;
+	private OrderStatus status;
+	private Date from;
+	private Date to;
+	private String address;
+
+	public UUID getStoreId() {
+		return storeId;
+	}
+
+	public void setStoreId(UUID storeId) {
+		this.storeId = storeId;
+	}
+
+	public OrderStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(OrderStatus status) {
+		this.status = status;
+	}
+
+	public Date getFrom() {
+		return from;
+	}
+
+	public void setFrom(Date from) {
+		this.from = from;
+	}
+
+	public Date getTo() {
+		return to;
+	}
+
+	public void setTo(Date to) {
+		this.to = to;
+	}
+
+	public String getAddress() {
+		return address;
+	}
+
+	public void setAddress(String address) {
+		this.address = address;
+	}
+
+}
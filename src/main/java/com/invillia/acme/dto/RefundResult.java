@@ -0,0 +1,47 @@
+package com.invillia.acme.dto;
+
+import org.springframework.http.HttpStatus;
+
+import com.invillia.acme.model.Refund;
+
+/**
+ * Resultado de uma solicitação de estorno. <br><br>
+ * 
+ * Quando o estorno é criado, <b>refund</b> é preenchido; caso contrário, <b>status</b> e <b>message</b> indicam o
+ * motivo da recusa.
+ * 
+ * @author Daniel
+ */
+public class RefundResult {
+
+	private final HttpStatus status;
+	private final String message;
+	private final Refund refund;
+
+	private RefundResult(HttpStatus status, String message, Refund refund) {
+		this.status = status;
+		this.message = message;
+		this.refund = refund;
+	}
+
+	public static RefundResult created(Refund refund) {
+		return new RefundResult(HttpStatus.CREATED, null, refund);
+	}
+
+	public static RefundResult error(HttpStatus status, String message) {
+		return new RefundResult(status, message, null);
+	}
+
+	public HttpStatus getStatus() {
+		return status;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public Refund getRefund() {
+		return refund;
+	}
+
+}
@@ -0,0 +1,47 @@
+package com.invillia.acme.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+import com.invillia.acme.model.OrderStatus;
+
+/**
+ * Totais de vendas de uma Store, mantidos em memória pelo SalesAggregates. <br><br>
+ *
+ * O <b>revenue</b> é a soma de 'unitPrice * quantity' dos itens de todas as Orders da Store, o <b>refunded</b> é o
+ * total estornado e <b>orders</b> é a quantidade de Orders em cada OrderStatus.
+ *
+ * @author Daniel
+ */
+public final class StoreSales {
+
+	private final UUID storeId;
+	private final BigDecimal revenue;
+	private final BigDecimal refunded;
+	private final Map<OrderStatus, Long> orders;
+
+	public StoreSales(UUID storeId, BigDecimal revenue, BigDecimal refunded, Map<OrderStatus, Long> orders) {
+		this.storeId = storeId;
+		this.revenue = revenue;
+		this.refunded = refunded;
+		this.orders = orders;
+	}
+
+	public UUID getStoreId() {
+		return storeId;
+	}
+
+	public BigDecimal getRevenue() {
+		return revenue;
+	}
+
+	public BigDecimal getRefunded() {
+		return refunded;
+	}
+
+	public Map<OrderStatus, Long> getOrders() {
+		return orders;
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.invillia.acme.dto;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Representação somente leitura de uma Store, usada pelos recursos de consulta. <br><br>
+ * 
+ * É preenchida diretamente pelas consultas (apenas 'id', 'name' e 'address'), sem passar pela entidade Store: nada
+ * é registrado no contexto de persistência do Hibernate e o formato do JSON não depende do mapeamento JPA. Por ser
+ * imutável, pode ser compartilhada pelo cache de leitura - e o JSON dela, gerado uma única vez por {@link #toJson},
+ * também. Uma alteração da Store remove a StoreView do cache, e com ela o JSON.
+ * 
+ * @author Daniel
+ */
+public final class StoreView implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final UUID id;
+	private final String name;
+	private final String address;
+	private final Long version;
+
+	// JSON gerado na primeira chamada ao toJson. Duas threads podem gerá-lo ao mesmo tempo; o resultado é o mesmo.
+	private transient volatile byte[] json;
+
+	public StoreView(UUID id, String name, String address, Long version) {
+		this.id = id;
+		this.name = name;
+		this.address = address;
+		this.version = version;
+	}
+
+	public UUID getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getAddress() {
+		return address;
+	}
+
+	// A versão é exposta apenas pelo header ETag.
+	@JsonIgnore
+	public Long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Retorna o JSON da StoreView, serializado apenas na primeira chamada. O array retornado não deve ser alterado.
+	 */
+	public byte[] toJson(ObjectMapper objectMapper) throws JsonProcessingException {
+		byte[] bytes = json;
+		if (bytes == null) {
+			bytes = objectMapper.writeValueAsBytes(this);
+			json = bytes;
+		}
+		return bytes;
+	}
+
+}
@@ -0,0 +1,31 @@
+package com.invillia.acme.filter;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Identifica o cliente de uma requisição, para os filtros que mantêm estado por cliente (o limite de requisições e as
+ * chaves de idempotência). <br><br>
+ *
+ * O cliente é o valor do header 'acme.client-header' - que deve ser preenchido pelo gateway da API, não pelo próprio
+ * cliente - ou, se ele não estiver configurado ou presente, o endereço de origem.
+ *
+ * @author Daniel
+ */
+@Component
+public class ClientResolver {
+
+	private final String header;
+
+	public ClientResolver(@Value("${acme.client-header:}") String header) {
+		this.header = header == null || header.isEmpty() ? null : header;
+	}
+
+	public String resolve(HttpServletRequest request) {
+		String client = header == null ? null : request.getHeader(header);
+		return client == null || client.isEmpty() ? request.getRemoteAddr() : client;
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.invillia.acme.filter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limite adaptativo de requisições simultâneas, que descarta o excesso quando as requisições passam a esperar na fila.
+ * <br><br>
+ *
+ * A medida de carga é o tempo de fila de cada requisição (QueueingTime: espera por uma conexão do pool do banco ou
+ * por um worker). Enquanto as requisições esperam no máximo 'acme.concurrency-limit.target-wait-ms', o limite cresce
+ * uma unidade a cada 'limite' requisições (aumento aditivo). Quando uma requisição passa da meta, o limite é reduzido
+ * em 10%, no máximo uma vez a cada 100 ms, para que uma rajada de requisições já enfileiradas não o derrube de uma vez
+ * (redução multiplicativa). O limite fica entre 'min' e 'max'. <br>
+ * As requisições acima do limite são recusadas imediatamente, em vez de aumentarem a fila e o tempo de resposta
+ * de todas as outras. O controle usa apenas operações atômicas, sem locks.
+ *
+ * @author Daniel
+ */
+@Component
+public class ConcurrencyLimiter {
+
+	private static final double BACKOFF = 0.9;
+	private static final long DECREASE_INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+	private final boolean enabled;
+	private final int min;
+	private final int max;
+	private final long targetWait;
+
+	private final AtomicInteger limit;
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger withinTarget = new AtomicInteger();
+	private final AtomicLong lastDecrease = new AtomicLong(System.nanoTime() - DECREASE_INTERVAL);
+
+	public ConcurrencyLimiter(@Value("${acme.concurrency-limit.enabled:false}") boolean enabled,
+			@Value("${acme.concurrency-limit.initial:20}") int initial,
+			@Value("${acme.concurrency-limit.min:4}") int min,
+			@Value("${acme.concurrency-limit.max:200}") int max,
+			@Value("${acme.concurrency-limit.target-wait-ms:20}") long targetWaitMs) {
+		this.enabled = enabled;
+		this.min = min;
+		this.max = max;
+		this.targetWait = TimeUnit.MILLISECONDS.toNanos(targetWaitMs);
+		this.limit = new AtomicInteger(Math.max(min, Math.min(max, initial)));
+	}
+
+	/**
+	 * Reserva uma vaga. Retorna false se o limite foi atingido; nesse caso {@link #release} não deve ser chamado.
+	 */
+	public boolean tryAcquire() {
+		if (!enabled) {
+			return true;
+		}
+		while (true) {
+			int current = inFlight.get();
+			if (current >= limit.get()) {
+				return false;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Libera a vaga e ajusta o limite pelo tempo que a requisição passou na fila.
+	 */
+	public void release(long queueing, long now) {
+		if (!enabled) {
+			return;
+		}
+		inFlight.decrementAndGet();
+		int current = limit.get();
+		if (queueing > targetWait) {
+			long last = lastDecrease.get();
+			if (now - last >= DECREASE_INTERVAL && lastDecrease.compareAndSet(last, now)) {
+				withinTarget.set(0);
+				limit.compareAndSet(current, Math.max(min, (int) (current * BACKOFF)));
+			}
+		}
+		else if (withinTarget.incrementAndGet() >= current) {
+			withinTarget.set(0);
+			limit.compareAndSet(current, Math.min(max, current + 1));
+		}
+	}
+
+	public int getLimit() {
+		return limit.get();
+	}
+
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+}
@@ -0,0 +1,123 @@
+package com.invillia.acme.filter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * Calcula o hash (SHA-256) do corpo da requisição à medida que ele é lido pelo controller, sem mantê-lo em memória -
+ * os recursos de criação em lote recebem o corpo como stream.
+ *
+ * @author Daniel
+ */
+class DigestingRequestWrapper extends HttpServletRequestWrapper {
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final MessageDigest digest = newDigest();
+	private ServletInputStream inputStream;
+	private BufferedReader reader;
+
+	DigestingRequestWrapper(HttpServletRequest request) {
+		super(request);
+	}
+
+	/**
+	 * Lê o restante do corpo da requisição original e calcula o hash do corpo inteiro.
+	 */
+	static byte[] digest(HttpServletRequest request) throws IOException {
+		return new DigestingRequestWrapper(request).digest();
+	}
+
+	@Override
+	public ServletInputStream getInputStream() throws IOException {
+		if (inputStream == null) {
+			inputStream = new DigestingInputStream(super.getInputStream());
+		}
+		return inputStream;
+	}
+
+	@Override
+	public BufferedReader getReader() throws IOException {
+		if (reader == null) {
+			String encoding = getCharacterEncoding();
+			Charset charset = encoding == null ? StandardCharsets.ISO_8859_1 : Charset.forName(encoding);
+			reader = new BufferedReader(new InputStreamReader(getInputStream(), charset));
+		}
+		return reader;
+	}
+
+	/**
+	 * Consome a parte do corpo que o controller não leu (ex.: espaços após o JSON) e retorna o hash do corpo inteiro.
+	 */
+	byte[] digest() throws IOException {
+		ServletInputStream in = getInputStream();
+		byte[] buffer = new byte[BUFFER_SIZE];
+		while (in.read(buffer) != -1) {
+			// Os bytes lidos já foram incluídos no hash.
+		}
+		return digest.digest();
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private class DigestingInputStream extends ServletInputStream {
+
+		private final ServletInputStream delegate;
+
+		DigestingInputStream(ServletInputStream delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = delegate.read();
+			if (b != -1) {
+				digest.update((byte) b);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int read = delegate.read(b, off, len);
+			if (read > 0) {
+				digest.update(b, off, read);
+			}
+			return read;
+		}
+
+		@Override
+		public boolean isFinished() {
+			return delegate.isFinished();
+		}
+
+		@Override
+		public boolean isReady() {
+			return delegate.isReady();
+		}
+
+		@Override
+		public void setReadListener(ReadListener readListener) {
+			delegate.setReadListener(readListener);
+		}
+
+	}
+
+}
@@ -0,0 +1,129 @@
+package com.invillia.acme.filter;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invillia.acme.exception.ApiError;
+
+/**
+ * Filtro que torna idempotentes as requisições POST enviadas com o header <b>Idempotency-Key</b>. <br><br>
+ * 
+ * A primeira requisição com uma chave é processada normalmente e, se for bem sucedida (2xx), a sua resposta é
+ * armazenada junto com o hash do corpo da requisição. As repetições com a mesma chave (do mesmo cliente, no mesmo
+ * caminho e com o mesmo corpo) recebem a resposta original, sem passar pelo controller nem pelo banco de dados.
+ * Uma repetição que chegue enquanto a original ainda está em processamento recebe 409, e uma repetição com outro
+ * corpo recebe 422. Requisições sem o header não são afetadas. <br>
+ * As chaves são separadas por cliente (ClientResolver, o mesmo do limite de requisições): um cliente que use a
+ * chave de outro não recebe a resposta armazenada para ele.
+ * 
+ * <br><br>
+ * 
+ * Os caminhos protegidos são definidos no registro do filtro (IdempotencyConfig).
+ * 
+ * @author Daniel
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+	public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+	public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+	static final int MAX_KEY_LENGTH = 255;
+
+	private final IdempotencyKeyStore store;
+	private final ClientResolver clientResolver;
+	private final ObjectMapper objectMapper;
+
+	public IdempotencyFilter(IdempotencyKeyStore store, ClientResolver clientResolver, ObjectMapper objectMapper) {
+		this.store = store;
+		this.clientResolver = clientResolver;
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !HttpMethod.POST.matches(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+
+		String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+		if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+			writeError(response, HttpStatus.BAD_REQUEST, String.format("O header %s deve ter entre 1 e %d caracteres.",
+					IDEMPOTENCY_KEY_HEADER, MAX_KEY_LENGTH));
+			return;
+		}
+
+		// A chave vale apenas para o cliente e o caminho em que foi usada.
+		String key = clientResolver.resolve(request) + '\n' + request.getRequestURI() + '\n' + idempotencyKey;
+		IdempotentResponse previous = store.reserve(key);
+		if (previous == IdempotencyKeyStore.IN_FLIGHT) {
+			writeError(response, HttpStatus.CONFLICT, String.format("A requisição com o %s [%s] ainda está em processamento.",
+					IDEMPOTENCY_KEY_HEADER, idempotencyKey));
+			return;
+		}
+		else if (previous != null) {
+			if (!MessageDigest.isEqual(previous.getRequestHash(), DigestingRequestWrapper.digest(request))) {
+				writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, String.format("O %s [%s] já foi usado em uma "
+						+ "requisição com outro conteúdo.", IDEMPOTENCY_KEY_HEADER, idempotencyKey));
+				return;
+			}
+			replay(previous, response);
+			return;
+		}
+
+		// O hash do corpo é calculado enquanto o controller o lê, sem mantê-lo em memória.
+		DigestingRequestWrapper requestWrapper = new DigestingRequestWrapper(request);
+		ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+		boolean completed = false;
+		try {
+			filterChain.doFilter(requestWrapper, wrapper);
+			completed = HttpStatus.valueOf(wrapper.getStatus()).is2xxSuccessful();
+		}
+		finally {
+			if (completed) {
+				store.complete(key, new IdempotentResponse(wrapper.getStatus(), wrapper.getContentType(),
+						wrapper.getHeader(HttpHeaders.LOCATION), wrapper.getContentAsByteArray(), requestWrapper.digest()));
+			}
+			else {
+				// Requisições que falharam podem ser repetidas com a mesma chave.
+				store.release(key);
+			}
+		}
+		wrapper.copyBodyToResponse();
+	}
+
+	private void replay(IdempotentResponse previous, HttpServletResponse response) throws IOException {
+		response.setStatus(previous.getStatus());
+		response.setHeader(REPLAYED_HEADER, "true");
+		if (previous.getContentType() != null) {
+			response.setContentType(previous.getContentType());
+		}
+		if (previous.getLocation() != null) {
+			response.setHeader(HttpHeaders.LOCATION, previous.getLocation());
+		}
+		response.setContentLength(previous.getBody().length);
+		response.getOutputStream().write(previous.getBody());
+	}
+
+	private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+		response.setStatus(status.value());
+		response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+		objectMapper.writeValue(response.getOutputStream(), new ApiError(status, message));
+	}
+
+}
@@ -0,0 +1,72 @@
+package com.invillia.acme.filter;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Armazena as respostas das requisições feitas com o header Idempotency-Key. <br><br>
+ * 
+ * O armazenamento é limitado pelo tamanho das respostas em bytes, e não pela quantidade de chaves: uma resposta de
+ * POST /stores/batch pode ter milhares de itens, então um limite por chaves não limitaria o heap. Quando o total passa
+ * de 'acme.idempotency.max-bytes', as chaves menos usadas são descartadas. Cada chave expira após o TTL configurado
+ * ('acme.idempotency.ttl-minutes').
+ * 
+ * @author Daniel
+ */
+@Component
+public class IdempotencyKeyStore {
+
+	/**
+	 * Marca uma chave cuja requisição original ainda está em processamento.
+	 */
+	static final IdempotentResponse IN_FLIGHT = new IdempotentResponse(0, null, null, new byte[0], new byte[0]);
+
+	// Estimativa dos bytes de cada entrada além do corpo, do hash e da chave (objetos, headers e a entrada do cache).
+	private static final int ENTRY_OVERHEAD = 128;
+
+	private final Cache<String, IdempotentResponse> responses;
+
+	public IdempotencyKeyStore(@Value("${acme.idempotency.max-bytes:67108864}") long maxBytes,
+			@Value("${acme.idempotency.ttl-minutes:1440}") long ttlMinutes) {
+		this.responses = Caffeine.newBuilder()
+				.maximumWeight(maxBytes)
+				.weigher(IdempotencyKeyStore::weigh)
+				.expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+				.build();
+	}
+
+	/**
+	 * Reserva a chave para uma nova requisição. Retorna null se a reserva foi feita, ou a resposta já armazenada
+	 * (que pode ser {@link #IN_FLIGHT}) caso a chave já exista.
+	 */
+	public IdempotentResponse reserve(String key) {
+		return responses.asMap().putIfAbsent(key, IN_FLIGHT);
+	}
+
+	public void complete(String key, IdempotentResponse response) {
+		responses.put(key, response);
+	}
+
+	public void release(String key) {
+		responses.asMap().remove(key, IN_FLIGHT);
+	}
+
+	/**
+	 * Total estimado, em bytes, das respostas armazenadas.
+	 */
+	long weightedSize() {
+		responses.cleanUp();
+		return responses.policy().eviction().get().weightedSize().getAsLong();
+	}
+
+	private static int weigh(String key, IdempotentResponse response) {
+		long size = ENTRY_OVERHEAD + 2L * key.length() + response.getBody().length + response.getRequestHash().length;
+		return (int) Math.min(Integer.MAX_VALUE, size);
+	}
+
+}
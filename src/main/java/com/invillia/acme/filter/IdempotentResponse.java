@@ -0,0 +1,45 @@
+package com.invillia.acme.filter;
+
+/**
+ * Resposta armazenada de uma requisição idempotente, reenviada sem alterações quando a requisição é repetida. O hash
+ * do corpo da requisição original permite recusar uma repetição da chave com outro corpo.
+ * 
+ * @author Daniel
+ */
+public class IdempotentResponse {
+
+	private final int status;
+	private final String contentType;
+	private final String location;
+	private final byte[] body;
+	private final byte[] requestHash;
+
+	public IdempotentResponse(int status, String contentType, String location, byte[] body, byte[] requestHash) {
+		this.status = status;
+		this.contentType = contentType;
+		this.location = location;
+		this.body = body;
+		this.requestHash = requestHash;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public String getLocation() {
+		return location;
+	}
+
+	public byte[] getBody() {
+		return body;
+	}
+
+	public byte[] getRequestHash() {
+		return requestHash;
+	}
+
+}
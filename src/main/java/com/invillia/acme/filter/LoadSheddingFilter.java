@@ -0,0 +1,185 @@
+package com.invillia.acme.filter;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invillia.acme.exception.ApiError;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Filtro que protege os recursos da API de rajadas: limite de requisições por cliente (RateLimiter) e limite
+ * adaptativo de requisições simultâneas (ConcurrencyLimiter). <br><br>
+ *
+ * Um cliente acima do seu limite recebe 429 e o header <b>Retry-After</b> com o tempo até a próxima ficha. Quando o
+ * serviço como um todo está no limite de requisições simultâneas, a requisição recebe 503 com Retry-After de 1
+ * segundo, sem chegar ao controller nem ao banco. Os descartes são contados em 'http.server.requests.shed' (tag
+ * 'reason'), e o limite atual e as requisições em andamento em 'http.server.concurrency.limit' e
+ * 'http.server.concurrency.in-flight'. <br><br>
+ *
+ * O limite de requisições simultâneas é ajustado pelo tempo que cada requisição passou na fila (QueueingTime): a
+ * espera por uma conexão do pool do banco e, no modo de execução assíncrono, a espera por um worker - registrada pelo
+ * filtro como CallableProcessingInterceptor, entre o desvio da requisição e o início do controller. O tempo total de
+ * resposta não é usado, porque depende também do tamanho dos dados e da velocidade do cliente (ex.: exportações em
+ * streaming). <br><br>
+ *
+ * O cliente é identificado pelo ClientResolver. Os caminhos protegidos são definidos no registro do filtro
+ * (LoadSheddingConfig).
+ *
+ * @author Daniel
+ */
+public class LoadSheddingFilter extends OncePerRequestFilter implements CallableProcessingInterceptor {
+
+	private static final String SUBMITTED_ATTRIBUTE = LoadSheddingFilter.class.getName() + ".SUBMITTED";
+
+	private final RateLimiter rateLimiter;
+	private final ConcurrencyLimiter concurrencyLimiter;
+	private final ClientResolver clientResolver;
+	private final ObjectMapper objectMapper;
+
+	private final Counter rateLimited;
+	private final Counter overloaded;
+
+	public LoadSheddingFilter(RateLimiter rateLimiter, ConcurrencyLimiter concurrencyLimiter, ClientResolver clientResolver,
+			ObjectMapper objectMapper, MeterRegistry registry) {
+		this.rateLimiter = rateLimiter;
+		this.concurrencyLimiter = concurrencyLimiter;
+		this.clientResolver = clientResolver;
+		this.objectMapper = objectMapper;
+
+		this.rateLimited = Counter.builder("http.server.requests.shed")
+				.description("Requisições recusadas pelo limite por cliente (429) ou de requisições simultâneas (503)")
+				.tag("reason", "rate-limit")
+				.register(registry);
+		this.overloaded = Counter.builder("http.server.requests.shed")
+				.description("Requisições recusadas pelo limite por cliente (429) ou de requisições simultâneas (503)")
+				.tag("reason", "concurrency")
+				.register(registry);
+		Gauge.builder("http.server.concurrency.limit", concurrencyLimiter, ConcurrencyLimiter::getLimit)
+				.description("Limite atual de requisições simultâneas")
+				.register(registry);
+		Gauge.builder("http.server.concurrency.in-flight", concurrencyLimiter, ConcurrencyLimiter::getInFlight)
+				.description("Requisições em andamento sob o limite de requisições simultâneas")
+				.register(registry);
+		Gauge.builder("http.server.rate-limit.clients", rateLimiter, RateLimiter::clients)
+				.description("Clientes acompanhados pelo limite de requisições por cliente")
+				.register(registry);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+
+		long now = System.nanoTime();
+		long wait = rateLimiter.tryAcquire(clientResolver.resolve(request), now);
+		if (wait > 0) {
+			rateLimited.increment();
+			response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999))));
+			writeError(response, HttpStatus.TOO_MANY_REQUESTS, "Limite de requisições excedido. Tente novamente após o "
+					+ "intervalo informado no header Retry-After.");
+			return;
+		}
+		if (!concurrencyLimiter.tryAcquire()) {
+			overloaded.increment();
+			response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+			writeError(response, HttpStatus.SERVICE_UNAVAILABLE, "O serviço está sobrecarregado. Tente novamente em instantes.");
+			return;
+		}
+
+		AtomicLong queueing = QueueingTime.track(request);
+		AtomicBoolean released = new AtomicBoolean();
+		try {
+			filterChain.doFilter(request, response);
+		}
+		finally {
+			if (request.isAsyncStarted()) {
+				// No modo async, a requisição termina no worker: a vaga é liberada ao fim do processamento.
+				request.getAsyncContext().addListener(new ReleaseListener(queueing, released));
+			}
+			else {
+				release(queueing, released);
+			}
+		}
+	}
+
+	@Override
+	public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+		request.setAttribute(SUBMITTED_ATTRIBUTE, System.nanoTime(), RequestAttributes.SCOPE_REQUEST);
+	}
+
+	@Override
+	public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+		// Executado pelo worker: o tempo desde o desvio da requisição é a espera na fila de workers.
+		Object submitted = request.getAttribute(SUBMITTED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+		if (submitted != null) {
+			QueueingTime.record(request, System.nanoTime() - (Long) submitted);
+		}
+	}
+
+	private void release(AtomicLong queueing, AtomicBoolean released) {
+		if (released.compareAndSet(false, true)) {
+			concurrencyLimiter.release(queueing.get(), System.nanoTime());
+		}
+	}
+
+	private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+		response.setStatus(status.value());
+		response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+		objectMapper.writeValue(response.getOutputStream(), new ApiError(status, message));
+	}
+
+	private class ReleaseListener implements AsyncListener {
+
+		private final AtomicLong queueing;
+		private final AtomicBoolean released;
+
+		ReleaseListener(AtomicLong queueing, AtomicBoolean released) {
+			this.queueing = queueing;
+			this.released = released;
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) {
+			release(queueing, released);
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) {
+			release(queueing, released);
+		}
+
+		@Override
+		public void onError(AsyncEvent event) {
+			release(queueing, released);
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+			// O listener continua registrado para o novo ciclo assíncrono.
+			event.getAsyncContext().addListener(this);
+		}
+
+	}
+
+}
@@ -0,0 +1,53 @@
+package com.invillia.acme.filter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Tempo que a requisição passou esperando por um recurso do serviço - uma conexão do pool do banco ou, no modo de
+ * execução assíncrono, um worker livre. É a medida de carga usada pelo ConcurrencyLimiter: ao contrário do tempo de
+ * resposta, não depende do tamanho dos dados nem da velocidade do cliente. <br><br>
+ *
+ * O acumulador é criado pelo LoadSheddingFilter como atributo da requisição; esperas registradas fora de uma
+ * requisição acompanhada (ex.: tarefas em segundo plano) são ignoradas.
+ *
+ * @author Daniel
+ */
+public final class QueueingTime {
+
+	private static final String ATTRIBUTE = QueueingTime.class.getName();
+
+	private QueueingTime() {
+	}
+
+	/**
+	 * Soma a espera à requisição associada à thread atual (RequestContextHolder).
+	 */
+	public static void record(long nanos) {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes != null) {
+			record(attributes, nanos);
+		}
+	}
+
+	/**
+	 * Soma a espera à requisição informada.
+	 */
+	public static void record(RequestAttributes attributes, long nanos) {
+		Object total = attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+		if (total instanceof AtomicLong) {
+			((AtomicLong) total).addAndGet(nanos);
+		}
+	}
+
+	static AtomicLong track(HttpServletRequest request) {
+		AtomicLong total = new AtomicLong();
+		request.setAttribute(ATTRIBUTE, total);
+		return total;
+	}
+
+}
@@ -0,0 +1,65 @@
+package com.invillia.acme.filter;
+
+import java.util.function.Supplier;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Registra no QueueingTime da requisição o tempo de espera por uma conexão do pool do HikariCP. <br><br>
+ *
+ * O Hikari aceita um único MetricsTrackerFactory, que substitui o registro automático das métricas do pool
+ * (hikaricp.*) feito pelo Spring Boot: por isso as métricas continuam sendo enviadas ao MeterRegistry pelo
+ * MicrometerMetricsTrackerFactory do próprio Hikari. A espera é informada na thread que pediu a conexão.
+ *
+ * @author Daniel
+ */
+public class QueueingTimeMetricsTrackerFactory implements MetricsTrackerFactory {
+
+	private final Supplier<MeterRegistry> registry;
+
+	public QueueingTimeMetricsTrackerFactory(Supplier<MeterRegistry> registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	public IMetricsTracker create(String poolName, PoolStats poolStats) {
+		MeterRegistry meterRegistry = registry.get();
+		IMetricsTracker delegate = meterRegistry == null ? new IMetricsTracker() { }
+				: new MicrometerMetricsTrackerFactory(meterRegistry).create(poolName, poolStats);
+		return new IMetricsTracker() {
+
+			@Override
+			public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+				delegate.recordConnectionCreatedMillis(connectionCreatedMillis);
+			}
+
+			@Override
+			public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+				delegate.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+				QueueingTime.record(elapsedAcquiredNanos);
+			}
+
+			@Override
+			public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+				delegate.recordConnectionUsageMillis(elapsedBorrowedMillis);
+			}
+
+			@Override
+			public void recordConnectionTimeout() {
+				delegate.recordConnectionTimeout();
+			}
+
+			@Override
+			public void close() {
+				delegate.close();
+			}
+
+		};
+	}
+
+}
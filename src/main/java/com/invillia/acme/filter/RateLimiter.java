@@ -0,0 +1,73 @@
+package com.invillia.acme.filter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Limite de requisições por cliente (token bucket), sem bloqueios. <br><br>
+ *
+ * Cada cliente pode fazer 'acme.rate-limit.requests-per-second' requisições por segundo, com rajadas de até
+ * 'acme.rate-limit.burst'. O balde é representado por um único AtomicLong por cliente (GCRA): o instante em que o
+ * balde estaria cheio novamente. Consumir uma ficha é um compareAndSet, sem lock, e os clientes ficam em um mapa
+ * segmentado do Caffeine, de forma que clientes diferentes não disputam a mesma posição de memória. <br>
+ * Os clientes inativos há mais tempo que o necessário para encher o balde são removidos, pois equivalem a um
+ * cliente novo; 'acme.rate-limit.max-clients' limita a memória usada.
+ *
+ * @author Daniel
+ */
+@Component
+public class RateLimiter {
+
+	private final boolean enabled;
+	private final long emissionInterval;
+	private final long burstWindow;
+	private final Cache<String, AtomicLong> clients;
+
+	public RateLimiter(@Value("${acme.rate-limit.requests-per-second:0}") double requestsPerSecond,
+			@Value("${acme.rate-limit.burst:100}") int burst,
+			@Value("${acme.rate-limit.max-clients:100000}") long maxClients) {
+		this.enabled = requestsPerSecond > 0;
+		this.emissionInterval = enabled ? (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond) : 0;
+		this.burstWindow = emissionInterval * Math.max(1, burst);
+		this.clients = Caffeine.newBuilder()
+				.maximumSize(maxClients)
+				.expireAfterAccess(Math.max(burstWindow, TimeUnit.SECONDS.toNanos(1)), TimeUnit.NANOSECONDS)
+				.build();
+	}
+
+	/**
+	 * Consome uma ficha do cliente. Retorna 0 se a requisição foi permitida, ou o tempo em nanossegundos até a
+	 * próxima ficha disponível caso contrário.
+	 */
+	public long tryAcquire(String client, long now) {
+		if (!enabled) {
+			return 0;
+		}
+		AtomicLong full = clients.get(client, key -> new AtomicLong(now));
+		while (true) {
+			long current = full.get();
+			long next = Math.max(current, now) + emissionInterval;
+			long wait = next - now - burstWindow;
+			if (wait > 0) {
+				return wait;
+			}
+			if (full.compareAndSet(current, next)) {
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * Quantidade aproximada de clientes acompanhados.
+	 */
+	public long clients() {
+		return clients.estimatedSize();
+	}
+
+}
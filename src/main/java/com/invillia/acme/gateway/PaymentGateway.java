@@ -0,0 +1,25 @@
+package com.invillia.acme.gateway;
+
+import com.invillia.acme.model.Payment;
+import com.invillia.acme.model.PaymentStatus;
+
+/**
+ * Integração com a operadora responsável por autorizar os pagamentos (Visa, Mastercard, bancos, etc). <br><br>
+ * 
+ * As chamadas podem ser lentas, por isso são feitas apenas pelos workers do PaymentProcessor e nunca nas threads
+ * das requisições HTTP. <br>
+ * Uma chamada que falha (timeout ou erro de I/O) pode ter sido aceita pela operadora, e o Payment é submetido
+ * novamente. Por isso toda autorização leva uma chave de idempotência estável (o id do Payment): a operadora cobra
+ * uma única vez por chave e, nas repetições, retorna o resultado da primeira autorização.
+ * 
+ * @author Daniel
+ */
+public interface PaymentGateway {
+
+	/**
+	 * Autoriza o Payment, retornando APPROVED ou CANCELLED. Repetições com a mesma <b>idempotencyKey</b> não geram
+	 * uma nova cobrança.
+	 */
+	PaymentStatus authorize(String idempotencyKey, Payment payment);
+
+}
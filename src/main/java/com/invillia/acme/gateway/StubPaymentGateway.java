@@ -0,0 +1,76 @@
+package com.invillia.acme.gateway;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.invillia.acme.model.Payment;
+import com.invillia.acme.model.PaymentStatus;
+
+/**
+ * Implementação local do PaymentGateway, usada enquanto não há integração com uma operadora real e nos testes. <br><br>
+ * 
+ * Aprova os cartões cujo número é válido pelo algoritmo de Luhn e cancela os demais. A latência de uma operadora
+ * real pode ser simulada pela propriedade 'acme.payments.gateway.stub.latency-ms'. <br>
+ * Como uma operadora real, guarda o resultado de cada chave de idempotência (por 24 horas) e o retorna nas
+ * repetições sem uma nova cobrança.
+ * 
+ * @author Daniel
+ */
+@Component
+public class StubPaymentGateway implements PaymentGateway {
+
+	private final long latencyMs;
+
+	private final Cache<String, PaymentStatus> authorizations = Caffeine.newBuilder()
+			.expireAfterWrite(24, TimeUnit.HOURS)
+			.build();
+
+	public StubPaymentGateway(@Value("${acme.payments.gateway.stub.latency-ms:0}") long latencyMs) {
+		this.latencyMs = latencyMs;
+	}
+
+	@Override
+	public PaymentStatus authorize(String idempotencyKey, Payment payment) {
+		return authorizations.get(idempotencyKey, key -> charge(payment));
+	}
+
+	private PaymentStatus charge(Payment payment) {
+		if (latencyMs > 0) {
+			try {
+				Thread.sleep(latencyMs);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return PaymentStatus.CANCELLED;
+			}
+		}
+		return isValid(payment.getCreditCard()) ? PaymentStatus.APPROVED : PaymentStatus.CANCELLED;
+	}
+
+	private boolean isValid(Long creditCard) {
+		if (creditCard == null || creditCard <= 0) {
+			return false;
+		}
+		long number = creditCard;
+		int sum = 0;
+		boolean doubled = false;
+		while (number > 0) {
+			int digit = (int) (number % 10);
+			if (doubled) {
+				digit *= 2;
+				if (digit > 9) {
+					digit -= 9;
+				}
+			}
+			sum += digit;
+			doubled = !doubled;
+			number /= 10;
+		}
+		return sum % 10 == 0;
+	}
+
+}
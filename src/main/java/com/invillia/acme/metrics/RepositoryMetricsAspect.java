@@ -0,0 +1,73 @@
+package com.invillia.acme.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Mede o tempo de cada chamada aos repositórios do Spring Data (incluindo os métodos customizados, como a busca
+ * por parâmetros da Store). <br><br>
+ *
+ * Métrica: repository.invocations, com as tags 'repository', 'method' e 'exception'.
+ *
+ * @author Daniel
+ */
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+	static final String METRIC_NAME = "repository.invocations";
+
+	private static final String BASE_PACKAGE = "com.invillia.acme.repository";
+
+	private final MeterRegistry registry;
+
+	// Nome do repositório por classe de proxy, para não percorrer as interfaces a cada chamada.
+	private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+	public RepositoryMetricsAspect(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Around("this(org.springframework.data.repository.Repository)")
+	public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+		String exception = "None";
+		Timer.Sample sample = Timer.start(registry);
+		try {
+			return joinPoint.proceed();
+		}
+		catch (Throwable ex) {
+			exception = ex.getClass().getSimpleName();
+			throw ex;
+		}
+		finally {
+			sample.stop(Timer.builder(METRIC_NAME)
+					.description("Tempo das chamadas aos repositórios")
+					.tag("repository", repositoryName(joinPoint.getThis()))
+					.tag("method", joinPoint.getSignature().getName())
+					.tag("exception", exception)
+					.publishPercentiles(0.5, 0.99, 0.999)
+					.register(registry));
+		}
+	}
+
+	private String repositoryName(Object proxy) {
+		return repositoryNames.computeIfAbsent(proxy.getClass(), type -> {
+			for (Class<?> candidate : AopProxyUtils.proxiedUserInterfaces(proxy)) {
+				if (candidate.getName().startsWith(BASE_PACKAGE)) {
+					return candidate.getSimpleName();
+				}
+			}
+			return type.getSimpleName();
+		});
+	}
+
+}
@@ -0,0 +1,63 @@
+package com.invillia.acme.metrics;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Observa todos os comandos SQL preparados pelo Hibernate, sem alterá-los. <br><br>
+ *
+ * Conta os comandos executados na thread atual entre {@link #begin()} e {@link #end()} (usado pelo
+ * StatementCountFilter para medir os comandos por requisição) e registra no log uma amostra dos comandos, na
+ * proporção definida por 'acme.sql.log-sample-rate' (0 desabilita e 1 registra todos).
+ *
+ * @author Daniel
+ */
+@Component
+public class SqlStatementInspector implements StatementInspector {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final Logger SQL_LOGGER = LoggerFactory.getLogger("com.invillia.acme.sql");
+
+	private static final ThreadLocal<int[]> COUNTER = new ThreadLocal<>();
+
+	private final double logSampleRate;
+
+	public SqlStatementInspector(@Value("${acme.sql.log-sample-rate:0}") double logSampleRate) {
+		this.logSampleRate = logSampleRate;
+	}
+
+	@Override
+	public String inspect(String sql) {
+		int[] counter = COUNTER.get();
+		if (counter != null) {
+			counter[0]++;
+		}
+		if (logSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+			SQL_LOGGER.info(sql);
+		}
+		return sql;
+	}
+
+	/**
+	 * Inicia a contagem de comandos na thread atual.
+	 */
+	public void begin() {
+		COUNTER.set(new int[1]);
+	}
+
+	/**
+	 * Encerra a contagem na thread atual e retorna a quantidade de comandos executados desde o {@link #begin()}.
+	 */
+	public int end() {
+		int[] counter = COUNTER.get();
+		COUNTER.remove();
+		return counter == null ? 0 : counter[0];
+	}
+
+}
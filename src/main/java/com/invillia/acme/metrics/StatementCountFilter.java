@@ -0,0 +1,101 @@
+package com.invillia.acme.metrics;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Registra a quantidade de comandos SQL executados pelo Hibernate em cada requisição. <br><br>
+ *
+ * Métrica: hibernate.statements.per.request, com as tags 'method' e 'uri' (o padrão do mapeamento, como em
+ * http.server.requests). Somente os comandos executados na thread da requisição são contados - o trabalho feito
+ * em segundo plano (Payments, exportação em streaming) fica de fora. <br><br>
+ *
+ * No modo de execução assíncrono (WebExecutionConfig), o controller é executado por um worker do Spring MVC: como
+ * CallableProcessingInterceptor, o filtro também conta os comandos do worker, e a métrica é registrada no dispatch
+ * assíncrono que conclui a requisição, somando as três partes.
+ *
+ * @author Daniel
+ */
+public class StatementCountFilter extends OncePerRequestFilter implements CallableProcessingInterceptor {
+
+	static final String METRIC_NAME = "hibernate.statements.per.request";
+
+	private static final String REQUEST_STATEMENTS_ATTRIBUTE = StatementCountFilter.class.getName() + ".REQUEST";
+	private static final String WORKER_STATEMENTS_ATTRIBUTE = StatementCountFilter.class.getName() + ".WORKER";
+
+	private final SqlStatementInspector inspector;
+	private final MeterRegistry registry;
+
+	public StatementCountFilter(SqlStatementInspector inspector, MeterRegistry registry) {
+		this.inspector = inspector;
+		this.registry = registry;
+	}
+
+	@Override
+	protected boolean shouldNotFilterAsyncDispatch() {
+		return false;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+
+		inspector.begin();
+		try {
+			filterChain.doFilter(request, response);
+		}
+		finally {
+			int statements = inspector.end();
+			if (isAsyncStarted(request)) {
+				// A requisição continua em um worker; a métrica é registrada no dispatch assíncrono.
+				request.setAttribute(REQUEST_STATEMENTS_ATTRIBUTE, statements);
+			}
+			else {
+				record(request, statements + take(request, REQUEST_STATEMENTS_ATTRIBUTE) + take(request, WORKER_STATEMENTS_ATTRIBUTE));
+			}
+		}
+	}
+
+	@Override
+	public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+		inspector.begin();
+	}
+
+	@Override
+	public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+		// Executado pelo worker, antes do dispatch assíncrono.
+		request.setAttribute(WORKER_STATEMENTS_ATTRIBUTE, inspector.end(), RequestAttributes.SCOPE_REQUEST);
+	}
+
+	private int take(HttpServletRequest request, String attribute) {
+		Object statements = request.getAttribute(attribute);
+		request.removeAttribute(attribute);
+		return statements == null ? 0 : (Integer) statements;
+	}
+
+	private void record(HttpServletRequest request, int statements) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		DistributionSummary.builder(METRIC_NAME)
+				.description("Comandos SQL executados por requisição")
+				.tag("method", request.getMethod())
+				.tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+				.publishPercentiles(0.5, 0.99, 0.999)
+				.register(registry)
+				.record(statements);
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.invillia.acme.model;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.UUID;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Esta classe representa uma alteração de Store, Order ou Payment registrada na tabela OUTBOX. <br><br>
+ *
+ * O <b>aggregate</b> é a tabela alterada (STORE, ORDER ou PAYMENT), o <b>aggregateId</b> é o ID da linha e a
+ * <b>operation</b> é INSERT, UPDATE ou DELETE. O evento não carrega o conteúdo da linha: o consumidor busca o
+ * estado atual pelo recurso correspondente. <br><br>
+ *
+ * O <b>sequence</b> é atribuído pelo OutboxRelay quando o evento é publicado, e é a posição usada pelo feed
+ * GET /changes?since=. Os eventos são criados somente pelo OutboxTrigger.
+ *
+ * @author Daniel
+ *
+ */
+@Entity
+@Table(name = "OUTBOX")
+public class ChangeEvent implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@JsonIgnore
+	private Long id;
+
+	private Long sequence;
+
+	private String aggregate;
+
+	@Column(name = "aggregate_id")
+	private UUID aggregateId;
+
+	private String operation;
+
+	@Column(name = "created_at")
+	@Temporal(TemporalType.TIMESTAMP)
+	private Date createdAt;
+
+	public Long getId() {
+		return id;
+	}
+
+	public Long getSequence() {
+		return sequence;
+	}
+
+	public void setSequence(Long sequence) {
+		this.sequence = sequence;
+	}
+
+	public String getAggregate() {
+		return aggregate;
+	}
+
+	public UUID getAggregateId() {
+		return aggregateId;
+	}
+
+	public String getOperation() {
+		return operation;
+	}
+
+	public Date getCreatedAt() {
+		return createdAt;
+	}
+
+}
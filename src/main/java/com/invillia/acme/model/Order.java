@@ -9,6 +9,7 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
@@ -16,8 +17,13 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
 import javax.persistence.Temporal;
+import javax.persistence.Table;
 import javax.persistence.TemporalType;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonProperty.Access;
+
 /**
  * Esta classe representa uma Order, que contém as informações de quais produtos foram vendidos,
  * de qual loja foram vendidos, o endereço de entrega e informações sobre o pagamento.
@@ -25,6 +31,7 @@ import javax.persistence.TemporalType;
  * @author Daniel
  */
 @Entity
+@Table(name = "\"ORDER\"")
 public class Order implements Serializable {
 
 	private static final long serialVersionUID = 1L;
@@ -42,10 +49,22 @@ public class Order implements Serializable {
 	@Enumerated(EnumType.STRING)
 	private OrderStatus status;
 
-	@ManyToOne
+	// Prazo para o estorno, preenchido quando o pagamento é aprovado. Fica nulo quando a Order não pode ser estornada.
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name="refundable_until")
+	@JsonProperty(access = Access.READ_ONLY)
+	private Date refundableUntil;
+
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name="store_id")
 	private Store store;
 	
+	// Cópia somente leitura da FK, para expor o ID da Store sem carregar a entidade.
+	@Column(name="store_id", insertable=false, updatable=false)
+	private UUID storeId;
+	
+	// As associações são carregadas sob demanda. As consultas que retornam a Order com os itens os buscam
+	// explicitamente (OrderRepository.findWithItemsById e a busca por parâmetros).
 	@OneToMany(mappedBy="order")
 	private List<OrderItem> items;
 
@@ -81,6 +100,31 @@ public class Order implements Serializable {
 		this.status = status;
 	}
 
+	public Date getRefundableUntil() {
+		return refundableUntil;
+	}
+
+	public void setRefundableUntil(Date refundableUntil) {
+		this.refundableUntil = refundableUntil;
+	}
+
+	@JsonIgnore
+	public Store getStore() {
+		return store;
+	}
+
+	public void setStore(Store store) {
+		this.store = store;
+	}
+
+	public UUID getStoreId() {
+		return storeId;
+	}
+
+	public void setStoreId(UUID storeId) {
+		this.storeId = storeId;
+	}
+
 	public List<OrderItem> getItems() {
 		return items;
 	}
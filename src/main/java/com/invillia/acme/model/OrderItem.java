@@ -6,6 +6,7 @@ import java.util.UUID;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
@@ -13,8 +14,12 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 /**
- * TODO
+ * Esta classe representa um item de uma Order, com a descrição do produto vendido, o seu preço unitário
+ * e a quantidade vendida.
+ * 
  * @author Daniel
  *
  */
@@ -35,7 +40,7 @@ public class OrderItem implements Serializable {
 	
 	private int quantity;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name="order_id")
 	private Order order;
 
@@ -71,4 +76,13 @@ public class OrderItem implements Serializable {
 		this.quantity = quantity;
 	}
 
+	@JsonIgnore
+	public Order getOrder() {
+		return order;
+	}
+
+	public void setOrder(Order order) {
+		this.order = order;
+	}
+
 }
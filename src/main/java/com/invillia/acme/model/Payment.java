@@ -8,6 +8,7 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
@@ -16,8 +17,14 @@ import javax.persistence.OneToOne;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonProperty.Access;
+
 /**
- * TODO
+ * Esta classe representa o Payment de uma Order. Ele é criado com o status PENDING e processado de forma
+ * assíncrona, sendo aprovado (APPROVED) ou cancelado (CANCELLED) pela operadora do cartão.
+ * 
  * @author Daniel
  *
  */
@@ -30,6 +37,8 @@ public class Payment implements Serializable {
 	@GeneratedValue(strategy = GenerationType.AUTO)
 	private UUID id;
 
+	// O número do cartão é aceito na requisição, mas nunca é devolvido nas respostas.
+	@JsonProperty(access = Access.WRITE_ONLY)
 	@Column(name = "credit_card")
 	private Long creditCard;
 
@@ -40,10 +49,14 @@ public class Payment implements Serializable {
 	@Enumerated(EnumType.STRING)
 	private PaymentStatus status;
 
-	@OneToOne
+	@OneToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "order_id")
 	private Order order;
 
+	// Cópia somente leitura da FK, para expor o ID da Order sem carregar a entidade.
+	@Column(name = "order_id", insertable = false, updatable = false)
+	private UUID orderId;
+
 	public UUID getId() {
 		return id;
 	}
@@ -76,12 +89,18 @@ public class Payment implements Serializable {
 		this.paymentDate = paymentDate;
 	}
 
+	@JsonIgnore
 	public Order getOrder() {
 		return order;
 	}
 
 	public void setOrder(Order order) {
 		this.order = order;
+		this.orderId = order == null ? null : order.getId();
+	}
+
+	public UUID getOrderId() {
+		return orderId;
 	}
 
 }
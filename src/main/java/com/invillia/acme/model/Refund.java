@@ -1,19 +1,33 @@
 package com.invillia.acme.model;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Date;
 import java.util.UUID;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonProperty.Access;
 
 /**
- * TODO
+ * Esta classe representa o estorno de uma Order inteira (ORDER) ou de um dos seus itens (ORDER_ITEM). <br><br>
+ *
+ * O <b>amount</b> é o valor estornado: o total do item, ou o total dos itens da Order que ainda não haviam sido
+ * estornados individualmente.
+ *
  * @author Daniel
  *
  */
@@ -29,12 +43,28 @@ public class Refund implements Serializable {
 	@Enumerated(EnumType.STRING)
 	private RefundType type;
 
-	@ManyToOne
-	@JoinColumn(name = "order_id")
+	@Column(name = "refund_date")
+	@Temporal(TemporalType.TIMESTAMP)
+	@JsonProperty(access = Access.READ_ONLY)
+	private Date refundDate;
+
+	@JsonProperty(access = Access.READ_ONLY)
+	private BigDecimal amount;
+
+	// As FKs são gravadas pelos IDs, de forma que o Refund seja criado sem carregar a Order e o item.
+	@Column(name = "order_id")
+	@JsonProperty(access = Access.READ_ONLY)
+	private UUID orderId;
+
+	@Column(name = "order_item_id")
+	private UUID orderItemId;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "order_id", insertable = false, updatable = false)
 	private Order order;
 
-	@ManyToOne
-	@JoinColumn(name = "order_item_id")
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "order_item_id", insertable = false, updatable = false)
 	private OrderItem orderItem;
 
 	public UUID getId() {
@@ -53,20 +83,46 @@ public class Refund implements Serializable {
 		this.type = type;
 	}
 
-	public Order getOrder() {
-		return order;
+	public Date getRefundDate() {
+		return refundDate;
 	}
 
-	public void setOrder(Order order) {
-		this.order = order;
+	public void setRefundDate(Date refundDate) {
+		this.refundDate = refundDate;
 	}
 
-	public OrderItem getOrderItem() {
-		return orderItem;
+	public BigDecimal getAmount() {
+		return amount;
 	}
 
-	public void setOrderItem(OrderItem orderItem) {
-		this.orderItem = orderItem;
+	public void setAmount(BigDecimal amount) {
+		this.amount = amount;
+	}
+
+	public UUID getOrderId() {
+		return orderId;
+	}
+
+	public void setOrderId(UUID orderId) {
+		this.orderId = orderId;
+	}
+
+	public UUID getOrderItemId() {
+		return orderItemId;
+	}
+
+	public void setOrderItemId(UUID orderItemId) {
+		this.orderItemId = orderItemId;
+	}
+
+	@JsonIgnore
+	public Order getOrder() {
+		return order;
+	}
+
+	@JsonIgnore
+	public OrderItem getOrderItem() {
+		return orderItem;
 	}
 
 }
@@ -4,34 +4,66 @@ import java.io.Serializable;
 import java.util.List;
 import java.util.UUID;
 
+import javax.persistence.ColumnResult;
+import javax.persistence.ConstructorResult;
 import javax.persistence.Entity;
-import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.OneToMany;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.SqlResultSetMapping;
+import javax.persistence.Transient;
+import javax.persistence.Version;
+
+import org.springframework.data.domain.Persistable;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.invillia.acme.dto.StoreView;
 
 /**
  * Esta classe representa uma Store. A Store é necessária para a efetuação de
  * uma Order no sistema.
  * 
+ * <br><br>
+ * 
+ * O ID é gerado pela aplicação (e não pelo banco) antes da inserção, o que permite inserir Stores em lote
+ * sem consultas adicionais. Por isso a entidade implementa {@link Persistable}, indicando ao Spring Data
+ * quando ela ainda não foi persistida.
+ * 
  * @author Daniel
  * @version 1.0
  */
 @Entity
-public class Store implements Serializable {
+@SqlResultSetMapping(name = Store.VIEW_MAPPING, classes = @ConstructorResult(targetClass = StoreView.class, columns = {
+		@ColumnResult(name = "id", type = UUID.class),
+		@ColumnResult(name = "name"),
+		@ColumnResult(name = "address"),
+		@ColumnResult(name = "version", type = Long.class) }))
+public class Store implements Serializable, Persistable<UUID> {
 
 	private static final long serialVersionUID = 1L;
 
+	/**
+	 * Mapeamento das consultas nativas que retornam {@link StoreView} (colunas 'id', 'name', 'address' e 'version').
+	 */
+	public static final String VIEW_MAPPING = "StoreView";
+
 	@Id
-	@GeneratedValue(strategy = GenerationType.AUTO)
 	private UUID id;
 
 	private String name;
 	private String address;
 
+	// Controle de concorrência otimista: exposto como ETag e comparado com o If-Match no PUT.
+	@Version
+	private Long version;
+
 	@OneToMany(mappedBy = "store")
 	private List<Order> orders;
 
+	@Transient
+	private boolean persisted;
+
 	public Store() {
 	}
 
@@ -41,6 +73,7 @@ public class Store implements Serializable {
 		this.address = address;
 	}
 
+	@Override
 	public UUID getId() {
 		return id;
 	}
@@ -65,4 +98,25 @@ public class Store implements Serializable {
 		this.address = address;
 	}
 
+	@JsonIgnore
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
+	@Override
+	@JsonIgnore
+	public boolean isNew() {
+		return !persisted;
+	}
+
+	@PostLoad
+	@PostPersist
+	void markPersisted() {
+		this.persisted = true;
+	}
+
 }
@@ -0,0 +1,23 @@
+package com.invillia.acme.outbox;
+
+import java.util.List;
+
+import com.invillia.acme.model.ChangeEvent;
+
+/**
+ * Destino dos eventos de alteração publicados pelo OutboxRelay (um broker de mensagens, um arquivo, etc). <br><br>
+ *
+ * A entrega é "pelo menos uma vez": se o relay falhar depois da publicação e antes de registrar o lote como
+ * publicado, o lote é publicado novamente. Os consumidores devem descartar os eventos repetidos pelo 'sequence'.
+ * A implementação é escolhida pela propriedade 'acme.outbox.sink' ('memory' ou 'file').
+ *
+ * @author Daniel
+ */
+public interface EventSink {
+
+	/**
+	 * Publica o lote de eventos, na ordem recebida. Uma exceção faz o relay tentar o lote novamente.
+	 */
+	void publish(List<ChangeEvent> events);
+
+}
@@ -0,0 +1,74 @@
+package com.invillia.acme.outbox;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invillia.acme.model.ChangeEvent;
+
+/**
+ * Implementação do EventSink que acrescenta os eventos a um arquivo, um JSON por linha. <br><br>
+ *
+ * Cada lote é escrito em uma única chamada e gravado em disco (fsync) antes de retornar, de forma que um lote
+ * registrado como publicado pelo relay está de fato no arquivo. O caminho é 'acme.outbox.file.path'.
+ *
+ * @author Daniel
+ */
+@Component
+@ConditionalOnProperty(name = "acme.outbox.sink", havingValue = "file")
+public class FileEventSink implements EventSink {
+
+	private final Path path;
+	private final ObjectMapper objectMapper;
+
+	@Autowired
+	public FileEventSink(@Value("${acme.outbox.file.path:./data/outbox.jsonl}") String path, ObjectMapper objectMapper) {
+		this.path = Paths.get(path);
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	public synchronized void publish(List<ChangeEvent> events) {
+		StringBuilder lines = new StringBuilder();
+		try {
+			for (ChangeEvent event : events) {
+				lines.append(objectMapper.writeValueAsString(event)).append('\n');
+			}
+		}
+		catch (JsonProcessingException ex) {
+			throw new IllegalStateException("Falha ao serializar os eventos.", ex);
+		}
+
+		try {
+			if (path.getParent() != null) {
+				Files.createDirectories(path.getParent());
+			}
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.APPEND)) {
+				ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+				channel.force(false);
+			}
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.invillia.acme.outbox;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.invillia.acme.model.ChangeEvent;
+
+/**
+ * Implementação do EventSink que mantém os últimos eventos em memória, no próprio processo. <br><br>
+ *
+ * É a implementação padrão, usada enquanto não há integração com um broker de mensagens e nos testes. Guarda até
+ * 'acme.outbox.memory.capacity' eventos, descartando os mais antigos.
+ *
+ * @author Daniel
+ */
+@Component
+@ConditionalOnProperty(name = "acme.outbox.sink", havingValue = "memory", matchIfMissing = true)
+public class InMemoryEventSink implements EventSink {
+
+	private final int capacity;
+	private final Deque<ChangeEvent> events = new ArrayDeque<>();
+
+	public InMemoryEventSink(@Value("${acme.outbox.memory.capacity:10000}") int capacity) {
+		this.capacity = capacity;
+	}
+
+	@Override
+	public synchronized void publish(List<ChangeEvent> batch) {
+		for (ChangeEvent event : batch) {
+			if (events.size() == capacity) {
+				events.removeFirst();
+			}
+			events.addLast(event);
+		}
+	}
+
+	/**
+	 * Retorna os eventos retidos, do mais antigo para o mais recente.
+	 */
+	public synchronized List<ChangeEvent> getEvents() {
+		return new ArrayList<>(events);
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.invillia.acme.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import com.invillia.acme.model.ChangeEvent;
+
+public interface ChangeEventRepository extends CrudRepository<ChangeEvent, Long> {
+
+	/**
+	 * Eventos ainda não publicados, na ordem de inserção.
+	 */
+	@Query("Select e From ChangeEvent e Where e.sequence Is Null Order By e.id")
+	List<ChangeEvent> findUnpublished(Pageable pageable);
+
+	/**
+	 * Eventos publicados após a posição <b>since</b>, na ordem da publicação.
+	 */
+	@Query("Select e From ChangeEvent e Where e.sequence > :since Order By e.sequence")
+	List<ChangeEvent> findPublishedAfter(@Param("since") long since, Pageable pageable);
+
+	@Query("Select Coalesce(Max(e.sequence), 0) From ChangeEvent e")
+	long findLastSequence();
+
+	@Query("Select Min(e.sequence) From ChangeEvent e")
+	Long findFirstSequence();
+
+	/**
+	 * Remove os eventos publicados até a posição <b>sequence</b> (inclusive), retornando a quantidade removida.
+	 */
+	@Modifying
+	@Query("Delete From ChangeEvent e Where e.sequence <= :sequence")
+	int deletePublishedUpTo(@Param("sequence") long sequence);
+
+}
@@ -0,0 +1,84 @@
+package com.invillia.acme.repository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import com.invillia.acme.model.Order;
+
+public interface OrderRepository extends CrudRepository<Order, UUID>, OrderRepositoryCustom {
+
+	/**
+	 * Busca a Order com os seus itens em um único SELECT.
+	 */
+	@EntityGraph(attributePaths = "items")
+	Optional<Order> findWithItemsById(UUID id);
+
+	/**
+	 * Bloqueia a linha da Order (SELECT ... FOR UPDATE) até o fim da transação, retornando o seu status. <br>
+	 * As operações que decidem a partir da Order e dos seus Payments ou Refunds (o registro de um Payment e os
+	 * estornos) chamam este método antes das verificações: duas operações simultâneas sobre a mesma Order são
+	 * serializadas, e a segunda só consulta o estado depois do commit da primeira.
+	 */
+	@Query(value = "SELECT status FROM \"ORDER\" WHERE id = :id FOR UPDATE", nativeQuery = true)
+	Optional<String> lockById(@Param("id") UUID id);
+
+	/**
+	 * Conclui a Order após a aprovação do pagamento, abrindo o prazo de estorno de <b>refundDays</b> dias a partir
+	 * da data de confirmação. Retorna 0 se a Order não estava aguardando o pagamento.
+	 */
+	@Modifying
+	@Query(value = "UPDATE \"ORDER\" SET status = 'COMPLETED', refundable_until = DATEADD('DAY', :refundDays, confirmation_date)"
+			+ " WHERE id = :id AND status = 'PAYMENT_PENDING'", nativeQuery = true)
+	int complete(@Param("id") UUID id, @Param("refundDays") int refundDays);
+
+	/**
+	 * Retorna 1 se a Order está concluída e dentro do prazo de estorno, ou 0 caso contrário. Consulta apenas a
+	 * linha da Order, pela chave primária.
+	 */
+	@Query("Select Count(o) From Order o Where o.id = :id"
+			+ " And o.status = com.invillia.acme.model.OrderStatus.COMPLETED And o.refundableUntil > :now")
+	long countRefundable(@Param("id") UUID id, @Param("now") Date now);
+
+	/**
+	 * Marca a Order como REFUNDED se ela ainda puder ser estornada. Retorna 0 caso contrário - a verificação e a
+	 * alteração são atômicas, de forma que uma Order não é estornada duas vezes.
+	 */
+	@Modifying
+	@Query("Update Order o Set o.status = com.invillia.acme.model.OrderStatus.REFUNDED, o.refundableUntil = null"
+			+ " Where o.id = :id And o.status = com.invillia.acme.model.OrderStatus.COMPLETED And o.refundableUntil > :now")
+	int refund(@Param("id") UUID id, @Param("now") Date now);
+
+	/**
+	 * Encerra os prazos de estorno vencidos, retornando a quantidade de Orders alteradas.
+	 */
+	@Modifying
+	@Query("Update Order o Set o.refundableUntil = null Where o.refundableUntil <= :now")
+	int expireRefunds(@Param("now") Date now);
+
+	/**
+	 * Retorna o ID da Store da Order, sem carregar a Order.
+	 */
+	@Query("Select o.storeId From Order o Where o.id = :id")
+	Optional<UUID> findStoreIdById(@Param("id") UUID id);
+
+	/**
+	 * Quantidade de Orders por Store e OrderStatus: linhas (storeId, status, quantidade).
+	 */
+	@Query("Select o.storeId, o.status, Count(o) From Order o Group By o.storeId, o.status")
+	List<Object[]> countByStoreAndStatus();
+
+	/**
+	 * Total dos itens (unitPrice * quantity) das Orders de cada Store: linhas (storeId, total).
+	 */
+	@Query("Select i.order.storeId, Sum(i.unitPrice * i.quantity) From OrderItem i Group By i.order.storeId")
+	List<Object[]> sumRevenueByStore();
+
+}
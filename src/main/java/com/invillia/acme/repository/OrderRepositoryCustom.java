@@ -0,0 +1,27 @@
+package com.invillia.acme.repository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import com.invillia.acme.dto.OrderFilter;
+import com.invillia.acme.model.Order;
+
+public interface OrderRepositoryCustom {
+
+	/**
+	 * Persiste a Order e todos os seus itens em uma única transação. A Store é referenciada pelo 'storeId' da Order,
+	 * sem ser consultada, e os itens são inseridos em lote.
+	 */
+	Order create(Order order);
+
+	/**
+	 * Busca as Orders que atendem ao filtro, na ordem (confirmationDate, id). <br><br>
+	 * 
+	 * A busca é paginada por keyset: quando informados, <b>afterDate</b> e <b>afterId</b> são a chave da última
+	 * Order da página anterior (<b>afterDate</b> é nulo se ela não tiver data de confirmação). Retorna no máximo
+	 * <b>limit</b> Orders.
+	 */
+	List<Order> findByParameters(OrderFilter filter, Date afterDate, UUID afterId, int limit);
+
+}
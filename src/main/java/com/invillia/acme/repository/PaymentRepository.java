@@ -0,0 +1,31 @@
+package com.invillia.acme.repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import com.invillia.acme.model.Payment;
+import com.invillia.acme.model.PaymentStatus;
+
+public interface PaymentRepository extends CrudRepository<Payment, UUID> {
+
+	boolean existsByOrderIdAndStatusIn(UUID orderId, Collection<PaymentStatus> status);
+
+	@Query("Select p.id From Payment p Where p.status = :status And p.paymentDate < :before Order By p.paymentDate")
+	List<UUID> findIdsByStatusBefore(@Param("status") PaymentStatus status, @Param("before") Date before, Pageable pageable);
+
+	/**
+	 * Conclui um Payment que ainda está PENDING. Retorna 0 se ele já tiver sido concluído por outro worker.
+	 */
+	@Modifying
+	@Query("Update Payment p Set p.status = :status Where p.id = :id And p.status = com.invillia.acme.model.PaymentStatus.PENDING")
+	int conclude(@Param("id") UUID id, @Param("status") PaymentStatus status);
+
+}
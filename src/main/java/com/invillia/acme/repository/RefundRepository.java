@@ -0,0 +1,36 @@
+package com.invillia.acme.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import com.invillia.acme.model.Refund;
+
+public interface RefundRepository extends CrudRepository<Refund, UUID> {
+
+	boolean existsByOrderItemId(UUID orderItemId);
+
+	/**
+	 * Valor total do item (unitPrice * quantity), ou null se o item não pertencer à Order.
+	 */
+	@Query("Select i.unitPrice * i.quantity From OrderItem i Where i.id = :itemId And i.order.id = :orderId")
+	BigDecimal findItemAmount(@Param("orderId") UUID orderId, @Param("itemId") UUID itemId);
+
+	/**
+	 * Valor total dos itens da Order que ainda não foram estornados individualmente.
+	 */
+	@Query("Select Coalesce(Sum(i.unitPrice * i.quantity), 0) From OrderItem i Where i.order.id = :orderId"
+			+ " And Not Exists (Select r.id From Refund r Where r.orderItemId = i.id)")
+	BigDecimal findRemainingAmount(@Param("orderId") UUID orderId);
+
+	/**
+	 * Total estornado das Orders de cada Store: linhas (storeId, total).
+	 */
+	@Query("Select r.order.storeId, Sum(r.amount) From Refund r Group By r.order.storeId")
+	List<Object[]> sumAmountByStore();
+
+}
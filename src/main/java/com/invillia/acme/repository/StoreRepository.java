@@ -1,11 +1,63 @@
 package com.invillia.acme.repository;
 
+import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.invillia.acme.configuration.CacheConfig;
+import com.invillia.acme.dto.StoreView;
 import com.invillia.acme.model.Store;
 
 public interface StoreRepository extends CrudRepository<Store, UUID>, StoreRepositoryCustom {
 
+	/**
+	 * Busca a Store pelo ID passando pelo cache de leitura. Deve ser usado apenas para leitura - alterações devem
+	 * partir do {@link #findById(Object)}, que sempre consulta o banco. <br>
+	 * Retorna a projeção imutável {@link StoreView}, que é o valor mantido no cache.
+	 */
+	@Cacheable(cacheNames = CacheConfig.STORES_CACHE, unless = "#result == null")
+	@Query("Select new com.invillia.acme.dto.StoreView(s.id, s.name, s.address, s.version) From Store s Where s.id = :id")
+	Optional<StoreView> findCachedById(@Param("id") UUID id);
+
+	/**
+	 * Atualiza somente os campos informados (os nulos são preservados) e incrementa a versão, em um único UPDATE e
+	 * sem consultar a Store antes. Retorna 0 se a Store não existir.
+	 */
+	@Transactional
+	@Modifying
+	@CacheEvict(cacheNames = CacheConfig.STORES_CACHE, key = "#p0")
+	@Query("Update Store s Set s.name = Coalesce(:name, s.name), s.address = Coalesce(:address, s.address),"
+			+ " s.version = s.version + 1 Where s.id = :id")
+	int update(@Param("id") UUID id, @Param("name") String name, @Param("address") String address);
+
+	/**
+	 * Igual ao {@link #update(UUID, String, String)}, mas apenas se a Store ainda estiver na versão informada.
+	 * Retorna 0 se a Store não existir ou tiver sido alterada por outra requisição.
+	 */
+	@Transactional
+	@Modifying
+	@CacheEvict(cacheNames = CacheConfig.STORES_CACHE, key = "#p0")
+	@Query("Update Store s Set s.name = Coalesce(:name, s.name), s.address = Coalesce(:address, s.address),"
+			+ " s.version = s.version + 1 Where s.id = :id And s.version = :version")
+	int update(@Param("id") UUID id, @Param("name") String name, @Param("address") String address, @Param("version") long version);
+
+	@Override
+	@CacheEvict(cacheNames = CacheConfig.STORES_CACHE, key = "#p0.id", condition = "#p0.id != null")
+	<S extends Store> S save(S store);
+
+	@Override
+	@CacheEvict(cacheNames = CacheConfig.STORES_CACHE, key = "#p0")
+	void deleteById(UUID id);
+
+	@Override
+	@CacheEvict(cacheNames = CacheConfig.STORES_CACHE, key = "#p0.id")
+	void delete(Store store);
+
 }
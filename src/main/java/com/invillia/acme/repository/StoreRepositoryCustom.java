@@ -1,11 +1,34 @@
 package com.invillia.acme.repository;
 
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
 
+import com.invillia.acme.dto.StoreView;
 import com.invillia.acme.model.Store;
 
 public interface StoreRepositoryCustom {
 
-	List<Store> findByParameters(String name, String address);
+	List<StoreView> findByParameters(String name, String address);
+
+	/**
+	 * Página da busca por parâmetros, ordenada por (name, id). Quando 'afterName' e 'afterId' são informados,
+	 * retorna apenas as Stores posteriores a essa chave, de forma que qualquer página custe o mesmo que a primeira.
+	 * <br>
+	 * As buscas retornam a projeção {@link StoreView}, em uma transação somente leitura, sem instanciar entidades.
+	 */
+	List<StoreView> findByParameters(String name, String address, String afterName, UUID afterId, int limit);
+
+	/**
+	 * Insere as Stores (que já devem possuir o ID gerado) em uma única transação, utilizando o batching
+	 * JDBC do Hibernate. Nenhuma consulta é feita antes das inserções.
+	 */
+	List<Store> insertAll(List<Store> stores);
+
+	/**
+	 * Percorre todas as Stores com um cursor forward-only, entregando uma por vez ao consumidor. Cada Store é
+	 * removida do contexto de persistência após ser consumida, de forma que a memória não cresce com a tabela.
+	 */
+	void forEachStore(Consumer<Store> consumer);
 
 }
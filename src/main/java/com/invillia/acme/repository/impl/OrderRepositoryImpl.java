@@ -0,0 +1,149 @@
+package com.invillia.acme.repository.impl;
+
+import static com.invillia.acme.utils.StringUtils.LIKE_ESCAPE;
+import static com.invillia.acme.utils.StringUtils.escapeLike;
+import static com.invillia.acme.utils.StringUtils.isEmpty;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.TemporalType;
+
+import org.hibernate.jpa.QueryHints;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.invillia.acme.dto.OrderFilter;
+import com.invillia.acme.model.Order;
+import com.invillia.acme.model.OrderItem;
+import com.invillia.acme.model.Store;
+import com.invillia.acme.repository.OrderRepositoryCustom;
+
+@Repository
+public class OrderRepositoryImpl implements OrderRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	@Transactional
+	public Order create(Order order) {
+		// A referência evita um SELECT na STORE - se ela não existir, a FK é violada no flush.
+		order.setStore(entityManager.getReference(Store.class, order.getStoreId()));
+		entityManager.persist(order);
+		
+		for (OrderItem item : order.getItems()) {
+			item.setOrder(order);
+			entityManager.persist(item);
+		}
+		
+		// O flush acontece aqui para que uma violação de FK seja traduzida como exceção deste método.
+		// Com 'order_inserts', os itens são enviados ao banco em um único lote JDBC.
+		entityManager.flush();
+		return order;
+	}
+
+	/**
+	 * As igualdades (storeId, status) e o intervalo de datas formam o prefixo dos índices compostos do "ORDER", então
+	 * a busca percorre apenas a faixa do índice correspondente ao filtro. O 'address' é aplicado somente sobre as
+	 * Orders dessa faixa. <br><br>
+	 * 
+	 * O índice é indicado explicitamente (USE INDEX): o otimizador do H2 prefere o índice da FK (somente store_id),
+	 * que obriga a ler todas as Orders da Store para então filtrar o período. <br><br>
+	 *
+	 * A coluna confirmation_date aceita nulos (ex.: Orders antigas ou gravadas diretamente no banco), que o H2 ordena
+	 * antes das datas. Um cursor sem 'afterDate' continua, então, pelas Orders sem data e depois por todas as datadas.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<Order> findByParameters(OrderFilter filter, Date afterDate, UUID afterId, int limit) {
+		boolean keyset = afterId != null;
+
+		StringBuilder queryStr = new StringBuilder("SELECT o.* FROM \"ORDER\" o USE INDEX (")
+				.append(index(filter))
+				.append(") WHERE 1 = 1");
+		if (filter.getStoreId() != null) {
+			queryStr.append(" AND o.store_id = :storeId");
+		}
+		if (filter.getStatus() != null) {
+			queryStr.append(" AND o.status = :status");
+		}
+		if (filter.getFrom() != null) {
+			queryStr.append(" AND o.confirmation_date >= :from");
+		}
+		if (filter.getTo() != null) {
+			queryStr.append(" AND o.confirmation_date < :to");
+		}
+		if (!isEmpty(filter.getAddress())) {
+			queryStr.append(" AND LOWER(o.address) LIKE :address ESCAPE '" + LIKE_ESCAPE + "'");
+		}
+		if (keyset && afterDate != null) {
+			// A primeira condição limita a faixa do índice; a segunda descarta as Orders já retornadas na mesma data.
+			queryStr.append(" AND o.confirmation_date >= :afterDate"
+					+ " AND (o.confirmation_date > :afterDate OR o.id > :afterId)");
+		}
+		else if (keyset) {
+			queryStr.append(" AND (o.confirmation_date IS NOT NULL OR o.id > :afterId)");
+		}
+		queryStr.append(" ORDER BY o.confirmation_date, o.id");
+
+		Query query = entityManager.createNativeQuery(queryStr.toString(), Order.class);
+		if (filter.getStoreId() != null) {
+			query.setParameter("storeId", filter.getStoreId());
+		}
+		if (filter.getStatus() != null) {
+			query.setParameter("status", filter.getStatus().name());
+		}
+		if (filter.getFrom() != null) {
+			query.setParameter("from", filter.getFrom(), TemporalType.TIMESTAMP);
+		}
+		if (filter.getTo() != null) {
+			query.setParameter("to", filter.getTo(), TemporalType.TIMESTAMP);
+		}
+		if (!isEmpty(filter.getAddress())) {
+			query.setParameter("address", "%" + escapeLike(filter.getAddress().toLowerCase(Locale.ROOT)) + "%");
+		}
+		if (keyset && afterDate != null) {
+			query.setParameter("afterDate", afterDate, TemporalType.TIMESTAMP);
+		}
+		if (keyset) {
+			query.setParameter("afterId", afterId);
+		}
+
+		List<Order> orders = query.setMaxResults(limit).getResultList();
+		fetchItems(orders);
+		return orders;
+	}
+
+	/**
+	 * Carrega os itens de todas as Orders da página em um único SELECT, em vez de um por Order na serialização.
+	 * As Orders já estão no contexto de persistência, então a consulta apenas inicializa as suas coleções.
+	 */
+	private void fetchItems(List<Order> orders) {
+		if (orders.isEmpty()) {
+			return;
+		}
+		List<UUID> ids = orders.stream().map(Order::getId).collect(Collectors.toList());
+		entityManager.createQuery("Select Distinct o From Order o Left Join Fetch o.items Where o.id In :ids", Order.class)
+				.setParameter("ids", ids)
+				.setHint(QueryHints.HINT_PASS_DISTINCT_THROUGH, false)
+				.getResultList();
+	}
+
+	private String index(OrderFilter filter) {
+		if (filter.getStoreId() != null && filter.getStatus() != null) {
+			return "IDX_ORDER_STORE_STATUS_DATE";
+		}
+		else if (filter.getStoreId() != null) {
+			return "IDX_ORDER_STORE_DATE";
+		}
+		return "IDX_ORDER_STATUS_DATE";
+	}
+
+}
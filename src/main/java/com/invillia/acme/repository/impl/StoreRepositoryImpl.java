@@ -1,31 +1,155 @@
-package com.invillia.acme.repository.impl;
-
-import java.util.List;
-
-import javax.persistence.EntityManager;
-import javax.persistence.PersistenceContext;
-import javax.persistence.Query;
-
-import org.springframework.stereotype.Repository;
-
-import com.invillia.acme.model.Store;
-import com.invillia.acme.repository.StoreRepositoryCustom;
-
-@Repository
-public class StoreRepositoryImpl implements StoreRepositoryCustom {
-	
-	@PersistenceContext
-	private EntityManager entityManager;
-
-	@Override
-	public List<Store> findByParameters(String name, String address) {
-		String queryStr = "Select s From Store s Where lower(s.name) like lower(:name) or lower(s.address) like lower(:address)";
-		
-		Query query = entityManager.createQuery(queryStr);
-		query.setParameter("name", "%"+name+"%");
-		query.setParameter("address", "%"+address+"%");
-		
-		return query.getResultList();
-	}
-
-}
+package com.invillia.acme.repository.impl;
+
+import static com.invillia.acme.utils.StringUtils.LIKE_ESCAPE;
+import static com.invillia.acme.utils.StringUtils.escapeLike;
+import static com.invillia.acme.utils.StringUtils.isEmpty;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.invillia.acme.dto.StoreView;
+import com.invillia.acme.model.Store;
+import com.invillia.acme.repository.StoreRepositoryCustom;
+import com.invillia.acme.repository.trigger.StoreTrigramTrigger;
+import com.invillia.acme.utils.Trigrams;
+
+@Repository
+public class StoreRepositoryImpl implements StoreRepositoryCustom {
+
+	private static final int SCROLL_FETCH_SIZE = 500;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+	private int batchSize;
+
+	/**
+	 * Busca Stores cujo 'name' ou 'address' contenham o texto informado, sem diferenciar maiúsculas. <br><br>
+	 *
+	 * Termos com 3 ou mais caracteres são resolvidos pelo índice STORE_TRIGRAM: somente as Stores que possuem todos
+	 * os trigramas do termo são candidatas, e o LIKE é aplicado apenas sobre elas. Termos menores não possuem
+	 * trigramas e continuam sendo resolvidos com o LIKE sobre a tabela. <br>
+	 * Nos dois casos o termo é buscado literalmente: '%' e '_' não são curingas.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<StoreView> findByParameters(String name, String address) {
+		return search(name, address, null, null, 0);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<StoreView> findByParameters(String name, String address, String afterName, UUID afterId, int limit) {
+		return search(name, address, afterName, afterId, limit);
+	}
+
+	@Override
+	@Transactional
+	public List<Store> insertAll(List<Store> stores) {
+		for (int i = 0; i < stores.size(); i++) {
+			entityManager.persist(stores.get(i));
+			// Descarrega cada lote para o banco e libera o contexto de persistência, mantendo a memória constante.
+			if ((i + 1) % batchSize == 0) {
+				entityManager.flush();
+				entityManager.clear();
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+		return stores;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void forEachStore(Consumer<Store> consumer) {
+		Session session = entityManager.unwrap(Session.class);
+		ScrollableResults results = session.createQuery("Select s From Store s")
+				.setReadOnly(true)
+				.setFetchSize(SCROLL_FETCH_SIZE)
+				.scroll(ScrollMode.FORWARD_ONLY);
+		try {
+			while (results.next()) {
+				Store store = (Store) results.get(0);
+				consumer.accept(store);
+				session.evict(store);
+			}
+		}
+		finally {
+			results.close();
+		}
+	}
+
+	private List<StoreView> search(String name, String address, String afterName, UUID afterId, int limit) {
+		boolean keyset = afterName != null && afterId != null;
+
+		List<String> branches = new ArrayList<>();
+		if (!isEmpty(name)) {
+			branches.add(branch("name", "name", StoreTrigramTrigger.NAME_FIELD, name, keyset));
+		}
+		if (!isEmpty(address)) {
+			branches.add(branch("address", "address", StoreTrigramTrigger.ADDRESS_FIELD, address, keyset));
+		}
+		if (branches.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		// Apenas as colunas da StoreView são lidas, e o resultado não é registrado no contexto de persistência.
+		String queryStr = "SELECT s.id, s.name, s.address, s.version FROM (" + String.join(" UNION ", branches) + ") s ORDER BY s.name, s.id";
+		Query query = entityManager.createNativeQuery(queryStr, Store.VIEW_MAPPING);
+		if (!isEmpty(name)) {
+			bind(query, "name", name);
+		}
+		if (!isEmpty(address)) {
+			bind(query, "address", address);
+		}
+		if (keyset) {
+			query.setParameter("afterName", afterName);
+			query.setParameter("afterId", afterId);
+		}
+		if (limit > 0) {
+			query.setMaxResults(limit);
+		}
+
+		return query.getResultList();
+	}
+
+	private String branch(String column, String param, String field, String term, boolean keyset) {
+		String like = "SELECT s.id, s.name, s.address, s.version FROM STORE s WHERE LOWER(s." + column + ") LIKE :" + param + "Pattern ESCAPE '" + LIKE_ESCAPE + "'";
+		if (keyset) {
+			// O filtro do cursor é aplicado em cada ramo, antes da ordenação, para descartar as páginas anteriores.
+			like += " AND (s.name > :afterName OR (s.name = :afterName AND s.id > :afterId))";
+		}
+		if (Trigrams.of(term).isEmpty()) {
+			return like;
+		}
+		return like + " AND s.id IN (SELECT t.store_id FROM STORE_TRIGRAM t"
+				+ " WHERE t.field = '" + field + "' AND t.gram IN (:" + param + "Grams)"
+				+ " GROUP BY t.store_id HAVING COUNT(*) = :" + param + "GramCount)";
+	}
+
+	private void bind(Query query, String param, String term) {
+		query.setParameter(param + "Pattern", "%" + escapeLike(Trigrams.normalize(term)) + "%");
+		Set<String> grams = Trigrams.of(term);
+		if (!grams.isEmpty()) {
+			query.setParameter(param + "Grams", grams);
+			query.setParameter(param + "GramCount", grams.size());
+		}
+	}
+
+}
@@ -0,0 +1,65 @@
+package com.invillia.acme.repository.trigger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.h2.api.Trigger;
+
+/**
+ * Trigger do H2 que registra na tabela OUTBOX cada alteração das tabelas STORE, "ORDER" e PAYMENT. <br><br>
+ *
+ * O registro é gravado na mesma transação da alteração: se ela sofrer rollback, o evento também é descartado, e
+ * nenhuma alteração confirmada fica sem evento - qualquer que seja a origem da escrita (JPA, atualizações em lote
+ * ou scripts SQL). O OutboxRelay publica os eventos depois do commit.
+ *
+ * @author Daniel
+ */
+public class OutboxTrigger implements Trigger {
+
+	public static final String INSERT = "INSERT";
+	public static final String UPDATE = "UPDATE";
+	public static final String DELETE = "DELETE";
+
+	private static final String INSERT_SQL = "INSERT INTO OUTBOX(aggregate, aggregate_id, operation, created_at)"
+			+ " VALUES (?, ?, ?, CURRENT_TIMESTAMP())";
+
+	private String aggregate;
+	private int idIndex;
+
+	@Override
+	public void init(Connection conn, String schemaName, String triggerName, String tableName, boolean before,
+			int type) throws SQLException {
+		aggregate = tableName.toUpperCase();
+		// Resolve a posição do ID pelo metadata, da mesma forma que o StoreTrigramTrigger.
+		try (ResultSet columns = conn.getMetaData().getColumns(null, schemaName, tableName, null)) {
+			while (columns.next()) {
+				if ("ID".equalsIgnoreCase(columns.getString("COLUMN_NAME"))) {
+					idIndex = columns.getInt("ORDINAL_POSITION") - 1;
+				}
+			}
+		}
+	}
+
+	@Override
+	public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+		String operation = oldRow == null ? INSERT : newRow == null ? DELETE : UPDATE;
+		Object id = newRow == null ? oldRow[idIndex] : newRow[idIndex];
+		try (PreparedStatement insert = conn.prepareStatement(INSERT_SQL)) {
+			insert.setString(1, aggregate);
+			insert.setObject(2, id);
+			insert.setString(3, operation);
+			insert.executeUpdate();
+		}
+	}
+
+	@Override
+	public void close() {
+	}
+
+	@Override
+	public void remove() {
+	}
+
+}
@@ -0,0 +1,103 @@
+package com.invillia.acme.repository.trigger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.h2.api.Trigger;
+
+import com.invillia.acme.utils.Trigrams;
+
+/**
+ * Trigger do H2 que mantém a tabela STORE_TRIGRAM sincronizada com a tabela STORE. <br><br>
+ * 
+ * Como o índice é mantido pelo próprio banco, qualquer escrita em STORE (JPA, atualizações em lote ou scripts SQL)
+ * atualiza os trigramas de 'name' e 'address' dentro da mesma transação.
+ * 
+ * @author Daniel
+ */
+public class StoreTrigramTrigger implements Trigger {
+
+	public static final String NAME_FIELD = "N";
+	public static final String ADDRESS_FIELD = "A";
+
+	private static final String DELETE_SQL = "DELETE FROM STORE_TRIGRAM WHERE store_id = ?";
+	private static final String INSERT_SQL = "INSERT INTO STORE_TRIGRAM(store_id, field, gram) VALUES (?, ?, ?)";
+
+	private int idIndex;
+	private int nameIndex;
+	private int addressIndex;
+
+	@Override
+	public void init(Connection conn, String schemaName, String triggerName, String tableName, boolean before,
+			int type) throws SQLException {
+		// Resolve a posição das colunas pelo metadata, para que novas colunas em STORE não quebrem o trigger.
+		try (ResultSet columns = conn.getMetaData().getColumns(null, schemaName, tableName, null)) {
+			while (columns.next()) {
+				int index = columns.getInt("ORDINAL_POSITION") - 1;
+				switch (columns.getString("COLUMN_NAME").toUpperCase()) {
+				case "ID":
+					idIndex = index;
+					break;
+				case "NAME":
+					nameIndex = index;
+					break;
+				case "ADDRESS":
+					addressIndex = index;
+					break;
+				default:
+					break;
+				}
+			}
+		}
+	}
+
+	@Override
+	public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+		if (oldRow != null && newRow != null
+				&& same(oldRow[nameIndex], newRow[nameIndex])
+				&& same(oldRow[addressIndex], newRow[addressIndex])
+				&& same(oldRow[idIndex], newRow[idIndex])) {
+			// Nenhum campo indexado mudou (ex.: apenas a versão), então não há trigramas para atualizar.
+			return;
+		}
+
+		if (oldRow != null) {
+			try (PreparedStatement delete = conn.prepareStatement(DELETE_SQL)) {
+				delete.setObject(1, oldRow[idIndex]);
+				delete.executeUpdate();
+			}
+		}
+
+		if (newRow != null) {
+			try (PreparedStatement insert = conn.prepareStatement(INSERT_SQL)) {
+				addGrams(insert, newRow[idIndex], NAME_FIELD, (String) newRow[nameIndex]);
+				addGrams(insert, newRow[idIndex], ADDRESS_FIELD, (String) newRow[addressIndex]);
+				insert.executeBatch();
+			}
+		}
+	}
+
+	private void addGrams(PreparedStatement insert, Object id, String field, String text) throws SQLException {
+		for (String gram : Trigrams.of(text)) {
+			insert.setObject(1, id);
+			insert.setString(2, field);
+			insert.setString(3, gram);
+			insert.addBatch();
+		}
+	}
+
+	private boolean same(Object a, Object b) {
+		return a == null ? b == null : a.equals(b);
+	}
+
+	@Override
+	public void close() {
+	}
+
+	@Override
+	public void remove() {
+	}
+
+}
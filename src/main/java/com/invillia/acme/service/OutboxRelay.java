@@ -0,0 +1,118 @@
+package com.invillia.acme.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.invillia.acme.model.ChangeEvent;
+import com.invillia.acme.outbox.EventSink;
+import com.invillia.acme.repository.ChangeEventRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Publica no EventSink os eventos de alteração gravados na tabela OUTBOX pelo OutboxTrigger. <br><br>
+ *
+ * A cada 'acme.outbox.relay-interval-ms', os eventos pendentes são lidos em lotes de 'acme.outbox.batch-size', na
+ * ordem de inserção, e recebem um 'sequence' crescente. O lote é publicado e registrado como publicado na mesma
+ * transação: se a publicação falhar, nada é registrado e o lote é tentado novamente no próximo ciclo. <br><br>
+ *
+ * Como só são lidos os eventos já confirmados, um evento cuja transação termine depois de outros mais recentes
+ * recebe um 'sequence' maior que o deles. Assim o feed GET /changes?since= nunca perde um evento por ter avançado
+ * a posição antes do commit. Os 'acme.outbox.retained-events' eventos publicados mais recentes são mantidos para
+ * o feed; os anteriores são removidos periodicamente.
+ *
+ * @author Daniel
+ */
+@Service
+public class OutboxRelay {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(OutboxRelay.class);
+
+	private final ChangeEventRepository repository;
+	private final EventSink sink;
+	private final TransactionTemplate transactionTemplate;
+	private final int batchSize;
+	private final long retainedEvents;
+
+	private final Counter published;
+
+	@Autowired
+	public OutboxRelay(ChangeEventRepository repository, EventSink sink, PlatformTransactionManager transactionManager,
+			MeterRegistry registry,
+			@Value("${acme.outbox.batch-size:500}") int batchSize,
+			@Value("${acme.outbox.retained-events:100000}") long retainedEvents) {
+		this.repository = repository;
+		this.sink = sink;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.batchSize = batchSize;
+		this.retainedEvents = retainedEvents;
+
+		this.published = Counter.builder("outbox.published")
+				.description("Eventos de alteração publicados no EventSink")
+				.register(registry);
+	}
+
+	/**
+	 * Publica todos os eventos pendentes, lote a lote, retornando a quantidade publicada.
+	 */
+	@Scheduled(fixedDelayString = "${acme.outbox.relay-interval-ms:1000}")
+	public synchronized int relay() {
+		int total = 0;
+		try {
+			int count;
+			do {
+				count = publishBatch();
+				total += count;
+			}
+			while (count == batchSize);
+		}
+		catch (RuntimeException ex) {
+			LOGGER.error("Falha ao publicar os eventos do outbox. Eles serão publicados novamente.", ex);
+		}
+		return total;
+	}
+
+	/**
+	 * Remove os eventos publicados mais antigos, mantendo os 'acme.outbox.retained-events' mais recentes.
+	 */
+	@Scheduled(fixedDelayString = "${acme.outbox.cleanup-interval-ms:3600000}")
+	public int cleanup() {
+		Integer removed = transactionTemplate.execute(tx -> {
+			long last = repository.findLastSequence();
+			return last > retainedEvents ? repository.deletePublishedUpTo(last - retainedEvents) : 0;
+		});
+		if (removed > 0) {
+			LOGGER.info("{} eventos publicados removidos do outbox.", removed);
+		}
+		return removed;
+	}
+
+	private int publishBatch() {
+		return transactionTemplate.execute(tx -> {
+			List<ChangeEvent> events = repository.findUnpublished(PageRequest.of(0, batchSize));
+			if (events.isEmpty()) {
+				return 0;
+			}
+			long sequence = repository.findLastSequence();
+			for (ChangeEvent event : events) {
+				event.setSequence(++sequence);
+			}
+			// Grava os 'sequence' antes da publicação: um conflito com outro relay falha aqui, sem publicar o lote.
+			tx.flush();
+			sink.publish(events);
+			published.increment(events.size());
+			return events.size();
+		});
+	}
+
+}
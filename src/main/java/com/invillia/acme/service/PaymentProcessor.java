@@ -0,0 +1,199 @@
+package com.invillia.acme.service;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.invillia.acme.gateway.PaymentGateway;
+import com.invillia.acme.model.Order;
+import com.invillia.acme.model.OrderStatus;
+import com.invillia.acme.model.Payment;
+import com.invillia.acme.model.PaymentStatus;
+import com.invillia.acme.repository.OrderRepository;
+import com.invillia.acme.repository.PaymentRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Processa os Payments de forma assíncrona. <br><br>
+ * 
+ * Os Payments são criados como PENDING pela API e submetidos a um pool limitado de workers, que consultam o
+ * PaymentGateway e concluem o Payment como APPROVED ou CANCELLED. Quando aprovado, a Order passa a COMPLETED e o seu
+ * prazo de estorno é aberto. <br>
+ * Payments que ficarem PENDING (fila cheia, falha no gateway ou reinício da aplicação) são submetidos novamente
+ * por uma tarefa periódica. O id do Payment é a chave de idempotência enviada ao gateway, então uma nova submissão
+ * após uma falha que a operadora já havia aceitado retorna o resultado da primeira autorização, sem cobrar o cartão
+ * duas vezes.
+ * 
+ * <br><br>
+ * 
+ * Métricas: payments.queue.depth, payments.queue.wait, payments.processing e payments.rejected.
+ * 
+ * @author Daniel
+ */
+@Service
+public class PaymentProcessor {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(PaymentProcessor.class);
+
+	private final ThreadPoolExecutor executor;
+	private final PaymentRepository paymentRepository;
+	private final OrderRepository orderRepository;
+	private final PaymentGateway gateway;
+	private final SalesAggregates salesAggregates;
+	private final TransactionTemplate transactionTemplate;
+	private final long recoveryIntervalMs;
+	private final int refundDays;
+
+	// Payments que já estão na fila ou sendo processados, para que a recuperação não os submeta em duplicidade.
+	private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+	private final Timer queueWait;
+	private final Timer processing;
+	private final Counter rejected;
+
+	@Autowired
+	public PaymentProcessor(@Qualifier("paymentExecutor") ThreadPoolExecutor executor,
+			PaymentRepository paymentRepository, OrderRepository orderRepository, PaymentGateway gateway,
+			SalesAggregates salesAggregates, PlatformTransactionManager transactionManager, MeterRegistry registry,
+			@Value("${acme.payments.recovery-interval-ms:30000}") long recoveryIntervalMs,
+			@Value("${acme.refunds.window-days:10}") int refundDays) {
+		this.executor = executor;
+		this.paymentRepository = paymentRepository;
+		this.orderRepository = orderRepository;
+		this.gateway = gateway;
+		this.salesAggregates = salesAggregates;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.recoveryIntervalMs = recoveryIntervalMs;
+		this.refundDays = refundDays;
+
+		Gauge.builder("payments.queue.depth", executor, e -> e.getQueue().size())
+				.description("Payments aguardando um worker")
+				.register(registry);
+		this.queueWait = Timer.builder("payments.queue.wait")
+				.description("Tempo entre a submissão e o início do processamento")
+				.publishPercentiles(0.5, 0.99)
+				.register(registry);
+		this.processing = Timer.builder("payments.processing")
+				.description("Tempo de processamento de um Payment, incluindo o gateway")
+				.publishPercentiles(0.5, 0.99)
+				.register(registry);
+		this.rejected = Counter.builder("payments.rejected")
+				.description("Submissões rejeitadas por fila cheia")
+				.register(registry);
+	}
+
+	/**
+	 * Registra o Payment da Order como PENDING, retornando null se a Order não estiver aguardando pagamento ou já
+	 * possuir um Payment PENDING ou APPROVED. <br>
+	 * A linha da Order é bloqueada antes da verificação, então duas submissões simultâneas para a mesma Order são
+	 * serializadas: a segunda vê o Payment da primeira e é recusada, e o gateway nunca recebe duas cobranças.
+	 */
+	public Payment register(Order order, Payment payment) {
+		return transactionTemplate.execute(tx -> {
+			String status = orderRepository.lockById(order.getId()).orElse(null);
+			if (!OrderStatus.PAYMENT_PENDING.name().equals(status) || paymentRepository.existsByOrderIdAndStatusIn(order.getId(),
+					Arrays.asList(PaymentStatus.PENDING, PaymentStatus.APPROVED))) {
+				return null;
+			}
+			payment.setId(null);
+			payment.setOrder(order);
+			payment.setStatus(PaymentStatus.PENDING);
+			payment.setPaymentDate(new Date());
+			return paymentRepository.save(payment);
+		});
+	}
+
+	/**
+	 * Indica se há espaço na fila para novos Payments.
+	 */
+	public boolean hasCapacity() {
+		return executor.getQueue().remainingCapacity() > 0;
+	}
+
+	/**
+	 * Submete o Payment para processamento. Retorna false se a fila estiver cheia - nesse caso o Payment continua
+	 * PENDING e será submetido novamente pela recuperação.
+	 */
+	public boolean submit(UUID paymentId) {
+		if (!inFlight.add(paymentId)) {
+			return true;
+		}
+		long submittedAt = System.nanoTime();
+		try {
+			executor.execute(() -> {
+				queueWait.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+				processing.record(() -> process(paymentId));
+			});
+			return true;
+		}
+		catch (RejectedExecutionException ex) {
+			inFlight.remove(paymentId);
+			rejected.increment();
+			return false;
+		}
+	}
+
+	private void process(UUID paymentId) {
+		try {
+			Payment payment = paymentRepository.findById(paymentId).orElse(null);
+			if (payment == null || payment.getStatus() != PaymentStatus.PENDING) {
+				return;
+			}
+
+			// A chamada ao gateway acontece fora de transação, para não prender uma conexão durante a espera.
+			PaymentStatus result = gateway.authorize(paymentId.toString(), payment);
+
+			transactionTemplate.execute(tx -> {
+				if (paymentRepository.conclude(paymentId, result) == 1 && result == PaymentStatus.APPROVED
+						&& orderRepository.complete(payment.getOrderId(), refundDays) == 1) {
+					orderRepository.findStoreIdById(payment.getOrderId())
+							.ifPresent(storeId -> salesAggregates.statusChanged(storeId, OrderStatus.PAYMENT_PENDING, OrderStatus.COMPLETED));
+				}
+				return null;
+			});
+		}
+		catch (RuntimeException ex) {
+			LOGGER.error("Falha ao processar o Payment [{}]. Ele será submetido novamente.", paymentId, ex);
+		}
+		finally {
+			inFlight.remove(paymentId);
+		}
+	}
+
+	/**
+	 * Submete novamente os Payments que estão PENDING há mais tempo que o intervalo de recuperação.
+	 */
+	@Scheduled(fixedDelayString = "${acme.payments.recovery-interval-ms:30000}")
+	public void resubmitPending() {
+		Date before = new Date(System.currentTimeMillis() - recoveryIntervalMs);
+		int limit = Math.max(1, executor.getQueue().remainingCapacity());
+		List<UUID> pending = paymentRepository.findIdsByStatusBefore(PaymentStatus.PENDING, before, PageRequest.of(0, limit));
+		for (UUID paymentId : pending) {
+			if (!submit(paymentId)) {
+				break;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,144 @@
+package com.invillia.acme.service;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.invillia.acme.dto.RefundResult;
+import com.invillia.acme.model.OrderStatus;
+import com.invillia.acme.model.Refund;
+import com.invillia.acme.model.RefundType;
+import com.invillia.acme.repository.OrderRepository;
+import com.invillia.acme.repository.RefundRepository;
+
+/**
+ * Aplica a regra de estorno: uma Order só pode ser estornada até 'acme.refunds.window-days' dias (10 por padrão)
+ * após a confirmação, e somente depois que o pagamento for aprovado. <br><br>
+ * 
+ * A elegibilidade é pré-calculada na coluna REFUNDABLE_UNTIL do "ORDER", preenchida pelo PaymentProcessor quando o
+ * pagamento é aprovado. Assim a verificação é uma consulta à própria linha da Order, pela chave primária, sem
+ * consultar os Payments nem carregar a Order com os itens. Uma tarefa periódica limpa os prazos vencidos.
+ * 
+ * @author Daniel
+ */
+@Service
+public class RefundService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(RefundService.class);
+
+	private final OrderRepository orderRepository;
+	private final RefundRepository refundRepository;
+	private final SalesAggregates salesAggregates;
+	private final int refundDays;
+
+	@Autowired
+	public RefundService(OrderRepository orderRepository, RefundRepository refundRepository,
+			SalesAggregates salesAggregates, @Value("${acme.refunds.window-days:10}") int refundDays) {
+		this.orderRepository = orderRepository;
+		this.refundRepository = refundRepository;
+		this.salesAggregates = salesAggregates;
+		this.refundDays = refundDays;
+	}
+
+	/**
+	 * Estorna a Order inteira. O valor estornado é o total dos itens que ainda não haviam sido estornados; se todos
+	 * já foram estornados individualmente, não há o que estornar e o retorno é 409.
+	 */
+	@Transactional
+	public RefundResult refundOrder(UUID orderId) {
+		Date now = new Date();
+		if (!lock(orderId)) {
+			return notFound(orderId);
+		}
+		if (orderRepository.countRefundable(orderId, now) == 0) {
+			return notRefundable(orderId);
+		}
+		BigDecimal amount = refundRepository.findRemainingAmount(orderId);
+		if (amount.signum() == 0) {
+			return RefundResult.error(HttpStatus.CONFLICT, String.format("Todos os itens da Order [%s] já foram estornados.", orderId));
+		}
+		orderRepository.refund(orderId, now);
+		Refund refund = save(RefundType.ORDER, orderId, null, amount, now);
+		orderRepository.findStoreIdById(orderId).ifPresent(storeId -> {
+			salesAggregates.statusChanged(storeId, OrderStatus.COMPLETED, OrderStatus.REFUNDED);
+			salesAggregates.refunded(storeId, refund.getAmount());
+		});
+		return RefundResult.created(refund);
+	}
+
+	/**
+	 * Estorna um único item da Order. Cada item pode ser estornado apenas uma vez.
+	 */
+	@Transactional
+	public RefundResult refundItem(UUID orderId, UUID orderItemId) {
+		Date now = new Date();
+		if (!lock(orderId)) {
+			return notFound(orderId);
+		}
+		if (orderRepository.countRefundable(orderId, now) == 0) {
+			return notRefundable(orderId);
+		}
+		BigDecimal amount = refundRepository.findItemAmount(orderId, orderItemId);
+		if (amount == null) {
+			return RefundResult.error(HttpStatus.NOT_FOUND,
+					String.format("Nenhum item [%s] encontrado na Order [%s]", orderItemId, orderId));
+		}
+		if (refundRepository.existsByOrderItemId(orderItemId)) {
+			return RefundResult.error(HttpStatus.CONFLICT, String.format("O item [%s] já foi estornado.", orderItemId));
+		}
+		Refund refund = save(RefundType.ORDER_ITEM, orderId, orderItemId, amount, now);
+		orderRepository.findStoreIdById(orderId).ifPresent(storeId -> salesAggregates.refunded(storeId, amount));
+		return RefundResult.created(refund);
+	}
+
+	/**
+	 * Encerra em lote os prazos de estorno vencidos.
+	 */
+	@Scheduled(fixedDelayString = "${acme.refunds.expiry-interval-ms:3600000}")
+	@Transactional
+	public int expireRefunds() {
+		int expired = orderRepository.expireRefunds(new Date());
+		if (expired > 0) {
+			LOGGER.info("Prazo de estorno encerrado para {} Orders.", expired);
+		}
+		return expired;
+	}
+
+	private Refund save(RefundType type, UUID orderId, UUID orderItemId, BigDecimal amount, Date now) {
+		Refund refund = new Refund();
+		refund.setType(type);
+		refund.setOrderId(orderId);
+		refund.setOrderItemId(orderItemId);
+		refund.setAmount(amount);
+		refund.setRefundDate(now);
+		return refundRepository.save(refund);
+	}
+
+	/**
+	 * Bloqueia a linha da Order até o fim da transação, retornando false se ela não existir. Os estornos da Order e
+	 * dos seus itens são serializados: um estorno da Order inteira simultâneo ao de um item só calcula o valor
+	 * restante depois do commit do item, e dois estornos do mesmo item não passam ambos pela verificação.
+	 */
+	private boolean lock(UUID orderId) {
+		return orderRepository.lockById(orderId).isPresent();
+	}
+
+	private RefundResult notFound(UUID orderId) {
+		return RefundResult.error(HttpStatus.NOT_FOUND, String.format("Nenhuma Order encontrada para o ID [%s]", orderId));
+	}
+
+	private RefundResult notRefundable(UUID orderId) {
+		return RefundResult.error(HttpStatus.CONFLICT, String.format("A Order [%s] não pode ser estornada: o pagamento "
+				+ "deve estar aprovado e o estorno deve ocorrer em até %d dias após a confirmação.", orderId, refundDays));
+	}
+
+}
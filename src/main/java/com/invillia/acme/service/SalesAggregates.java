@@ -0,0 +1,212 @@
+package com.invillia.acme.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.invillia.acme.dto.StoreSales;
+import com.invillia.acme.model.Order;
+import com.invillia.acme.model.OrderStatus;
+import com.invillia.acme.repository.OrderRepository;
+import com.invillia.acme.repository.RefundRepository;
+
+/**
+ * Totais de vendas por Store (receita, Orders por OrderStatus e total estornado), mantidos em memória. <br><br>
+ *
+ * Os totais são carregados por GROUP BY na subida da aplicação e, a partir daí, atualizados incrementalmente por quem
+ * altera as Orders: a criação (OrderController), a aprovação do pagamento (PaymentProcessor) e os estornos
+ * (RefundService). Cada alteração é registrada dentro da transação que a grava e aplicada somente após o seu commit,
+ * de forma que um rollback não altera os totais. A consulta de uma Store é uma leitura do mapa, sem acesso ao banco.
+ * <br><br>
+ *
+ * Os valores são acumulados em centavos (LongAdder), sem bloqueio entre as threads que atualizam a mesma Store.
+ * O <b>rebuild</b> recalcula tudo a partir do banco e substitui o mapa; ele serve para recuperação, por exemplo
+ * após uma alteração feita diretamente no banco. Uma transação com alterações registradas não conclui o commit
+ * enquanto um rebuild lê o banco, então cada alteração está ou na leitura do rebuild ou no mapa novo, nunca nos dois.
+ * Até a primeira carga terminar, os totais não estão disponíveis (<b>isLoaded</b>).
+ *
+ * @author Daniel
+ */
+@Service
+public class SalesAggregates {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SalesAggregates.class);
+
+	private final OrderRepository orderRepository;
+	private final RefundRepository refundRepository;
+
+	// As transações com alterações registradas seguram o lock de leitura do início do commit até a aplicação da
+	// alteração (são concorrentes entre si); o rebuild usa o de escrita, para que nenhum commit aconteça entre a sua
+	// leitura do banco e a troca do mapa.
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private volatile ConcurrentMap<UUID, Totals> stores = new ConcurrentHashMap<>();
+	private volatile boolean loaded;
+
+	@Autowired
+	public SalesAggregates(OrderRepository orderRepository, RefundRepository refundRepository) {
+		this.orderRepository = orderRepository;
+		this.refundRepository = refundRepository;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		int count = rebuild();
+		loaded = true;
+		LOGGER.info("Totais de vendas carregados para {} Stores.", count);
+	}
+
+	/**
+	 * Indica se a primeira carga dos totais já terminou.
+	 */
+	public boolean isLoaded() {
+		return loaded;
+	}
+
+	/**
+	 * Retorna os totais da Store. Uma Store sem Orders tem todos os totais zerados.
+	 */
+	public StoreSales get(UUID storeId) {
+		Totals totals = stores.get(storeId);
+		return totals == null ? new Totals().toStoreSales(storeId) : totals.toStoreSales(storeId);
+	}
+
+	/**
+	 * Recalcula todos os totais a partir do banco, retornando a quantidade de Stores com Orders.
+	 */
+	@Transactional(readOnly = true)
+	public int rebuild() {
+		lock.writeLock().lock();
+		try {
+			ConcurrentMap<UUID, Totals> rebuilt = new ConcurrentHashMap<>();
+			for (Object[] row : orderRepository.countByStoreAndStatus()) {
+				totals(rebuilt, (UUID) row[0]).orders.get((OrderStatus) row[1]).add((Long) row[2]);
+			}
+			for (Object[] row : orderRepository.sumRevenueByStore()) {
+				totals(rebuilt, (UUID) row[0]).revenue.add(cents((BigDecimal) row[1]));
+			}
+			for (Object[] row : refundRepository.sumAmountByStore()) {
+				totals(rebuilt, (UUID) row[0]).refunded.add(cents((BigDecimal) row[1]));
+			}
+			stores = rebuilt;
+			return rebuilt.size();
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Registra uma nova Order, com o total dos seus itens. O total usa os preços como gravados no banco
+	 * (DECIMAL(12,2)), que é a mesma base do rebuild.
+	 */
+	public void orderCreated(Order order) {
+		long revenue = order.getItems().stream()
+				.mapToLong(item -> cents(persisted(item.getUnitPrice()).multiply(BigDecimal.valueOf(item.getQuantity()))))
+				.sum();
+		OrderStatus status = order.getStatus();
+		afterCommit(order.getStoreId(), totals -> {
+			totals.orders.get(status).increment();
+			totals.revenue.add(revenue);
+		});
+	}
+
+	/**
+	 * Registra a mudança de status de uma Order da Store.
+	 */
+	public void statusChanged(UUID storeId, OrderStatus from, OrderStatus to) {
+		afterCommit(storeId, totals -> {
+			totals.orders.get(from).decrement();
+			totals.orders.get(to).increment();
+		});
+	}
+
+	/**
+	 * Registra um estorno de uma Order da Store.
+	 */
+	public void refunded(UUID storeId, BigDecimal amount) {
+		long refunded = cents(amount);
+		afterCommit(storeId, totals -> totals.refunded.add(refunded));
+	}
+
+	// A alteração é aplicada após o commit. O lock de leitura é adquirido antes do commit e liberado somente após a
+	// aplicação: um rebuild não lê o banco entre o commit e a aplicação, o que contaria a alteração duas vezes.
+	private void afterCommit(UUID storeId, Consumer<Totals> update) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			throw new IllegalStateException("As alterações dos totais de vendas devem ser registradas em uma transação.");
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+			private boolean locked;
+
+			@Override
+			public void beforeCommit(boolean readOnly) {
+				lock.readLock().lock();
+				locked = true;
+			}
+
+			@Override
+			public void afterCommit() {
+				update.accept(totals(stores, storeId));
+			}
+
+			@Override
+			public void afterCompletion(int status) {
+				if (locked) {
+					lock.readLock().unlock();
+				}
+			}
+		});
+	}
+
+	private static Totals totals(ConcurrentMap<UUID, Totals> map, UUID storeId) {
+		return map.computeIfAbsent(storeId, id -> new Totals());
+	}
+
+	// Conversão feita pelo H2 ao gravar um valor em uma coluna DECIMAL(12,2).
+	private static BigDecimal persisted(BigDecimal amount) {
+		return amount.setScale(2, RoundingMode.HALF_UP);
+	}
+
+	private static long cents(BigDecimal amount) {
+		return amount == null ? 0 : amount.movePointRight(2).longValue();
+	}
+
+	private static final class Totals {
+
+		private final LongAdder revenue = new LongAdder();
+		private final LongAdder refunded = new LongAdder();
+		private final Map<OrderStatus, LongAdder> orders = new EnumMap<>(OrderStatus.class);
+
+		private Totals() {
+			for (OrderStatus status : OrderStatus.values()) {
+				orders.put(status, new LongAdder());
+			}
+		}
+
+		private StoreSales toStoreSales(UUID storeId) {
+			Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+			orders.forEach((status, count) -> counts.put(status, count.sum()));
+			return new StoreSales(storeId, BigDecimal.valueOf(revenue.sum(), 2), BigDecimal.valueOf(refunded.sum(), 2), counts);
+		}
+
+	}
+
+}
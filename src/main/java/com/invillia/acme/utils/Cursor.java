@@ -0,0 +1,59 @@
+package com.invillia.acme.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Utilitário para os cursores opacos da paginação por keyset. <br><br>
+ * 
+ * O cursor é a chave de ordenação do último registro de uma página, codificada em Base64 (URL safe) para
+ * que o cliente apenas a repasse no parâmetro 'after' da próxima requisição. <br>
+ * Somente a primeira parte pode ser um texto livre (ex.: o 'name' da Store, que pode conter quebras de linha): as
+ * demais possuem formato fixo (ids e datas) e são separadas a partir do fim do cursor.
+ * 
+ * @author Daniel
+ */
+public class Cursor {
+
+	private static final char SEPARATOR = '\n';
+
+	public static String encode(Object... parts) {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < parts.length; i++) {
+			if (i > 0) {
+				builder.append(SEPARATOR);
+			}
+			builder.append(parts[i]);
+		}
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(builder.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decodifica o cursor, retornando as suas partes ou null caso ele seja inválido ou não tenha a quantidade
+	 * de partes esperada.
+	 */
+	public static String[] decode(String cursor, int expectedParts) {
+		if (cursor == null || cursor.isEmpty()) {
+			return null;
+		}
+		try {
+			String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			String[] parts = new String[expectedParts];
+			int end = decoded.length();
+			for (int i = expectedParts - 1; i > 0; i--) {
+				int separator = decoded.lastIndexOf(SEPARATOR, end - 1);
+				if (separator < 0) {
+					return null;
+				}
+				parts[i] = decoded.substring(separator + 1, end);
+				end = separator;
+			}
+			parts[0] = decoded.substring(0, end);
+			return parts;
+		}
+		catch (IllegalArgumentException ex) {
+			return null;
+		}
+	}
+
+}
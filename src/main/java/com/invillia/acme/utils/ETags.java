@@ -0,0 +1,47 @@
+package com.invillia.acme.utils;
+
+/**
+ * Utilitário para os ETags derivados da versão (@Version) das entidades. <br><br>
+ * 
+ * O ETag é a própria versão entre aspas (ex.: "3"), de forma que o valor recebido no header If-Match possa ser
+ * comparado diretamente com a coluna VERSION no UPDATE, sem consultar a entidade. <br>
+ * Para as listas, o ETag é fraco (ex.: W/"1f3a") e derivado dos IDs e versões dos itens retornados.
+ * 
+ * @author Daniel
+ */
+public class ETags {
+
+	public static final String ANY = "*";
+
+	public static String of(Long version) {
+		return "\"" + (version == null ? 0 : version) + "\"";
+	}
+
+	/**
+	 * ETag fraco para um conteúdo identificado por um hash (ex.: os IDs e versões dos itens de uma página).
+	 */
+	public static String weak(long hash) {
+		return "W/\"" + Long.toHexString(hash) + "\"";
+	}
+
+	/**
+	 * Extrai a versão de um ETag forte, para o If-Match. Retorna null se o valor não for um ETag gerado por
+	 * {@link #of(Long)}: o If-Match usa a comparação forte (RFC 7232), então um ETag fraco (W/"3") nunca corresponde.
+	 */
+	public static Long parseVersion(String etag) {
+		if (etag == null) {
+			return null;
+		}
+		String value = etag.trim();
+		if (value.length() < 3 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"') {
+			return null;
+		}
+		try {
+			return Long.valueOf(value.substring(1, value.length() - 1));
+		}
+		catch (NumberFormatException ex) {
+			return null;
+		}
+	}
+
+}
@@ -1,9 +1,30 @@
 package com.invillia.acme.utils;
 
 public class StringUtils {
+
+	/**
+	 * Caractere de escape dos termos usados em LIKE (cláusula ESCAPE).
+	 */
+	public static final char LIKE_ESCAPE = '\\';
 	
 	public static boolean isEmpty(String str) {
 		return str == null || str.isEmpty();
 	}
 
+	/**
+	 * Escapa os curingas do LIKE ('%' e '_') e o próprio caractere de escape, para que o termo seja comparado como
+	 * texto literal. A consulta deve declarar ESCAPE com {@link #LIKE_ESCAPE}.
+	 */
+	public static String escapeLike(String term) {
+		StringBuilder escaped = new StringBuilder(term.length() + 8);
+		for (int i = 0; i < term.length(); i++) {
+			char c = term.charAt(i);
+			if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+				escaped.append(LIKE_ESCAPE);
+			}
+			escaped.append(c);
+		}
+		return escaped.toString();
+	}
+
 }
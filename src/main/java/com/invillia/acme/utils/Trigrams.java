@@ -0,0 +1,37 @@
+package com.invillia.acme.utils;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Utilitário que decompõe textos em trigramas (sequências de 3 caracteres), usados pelo índice
+ * STORE_TRIGRAM para responder buscas do tipo "contém" sem varrer a tabela inteira.
+ * 
+ * @author Daniel
+ */
+public class Trigrams {
+
+	public static final int SIZE = 3;
+
+	/**
+	 * Retorna os trigramas distintos do texto, já normalizado em letras minúsculas.
+	 * Textos com menos de 3 caracteres não possuem trigramas e retornam um conjunto vazio.
+	 */
+	public static Set<String> of(String text) {
+		Set<String> grams = new LinkedHashSet<>();
+		if (text == null || text.length() < SIZE) {
+			return grams;
+		}
+		String normalized = normalize(text);
+		for (int i = 0; i + SIZE <= normalized.length(); i++) {
+			grams.add(normalized.substring(i, i + SIZE));
+		}
+		return grams;
+	}
+
+	public static String normalize(String text) {
+		return text.toLowerCase(Locale.ROOT);
+	}
+
+}
@@ -0,0 +1,65 @@
+package com.invillia.acme.utils;
+
+import java.util.UUID;
+
+/**
+ * Utilitário para converter os IDs recebidos nas requisições em UUID sem usar exceções. <br><br>
+ *
+ * O UUID.fromString sinaliza um valor inválido com IllegalArgumentException, cuja criação (com o stack trace) é
+ * muito mais cara que a própria conversão. Como IDs inválidos são comuns (clientes com erro, varreduras de bots),
+ * os recursos usam {@link #parse(String)}, que retorna null nesses casos. <br>
+ * Somente a forma canônica é aceita: 36 caracteres, 8-4-4-4-12 dígitos hexadecimais separados por hífen.
+ *
+ * @author Daniel
+ */
+public class Uuids {
+
+	private static final int LENGTH = 36;
+
+	// Valor de cada caractere hexadecimal, ou -1 para os demais caracteres ASCII.
+	private static final byte[] HEX = new byte[128];
+
+	static {
+		for (int i = 0; i < HEX.length; i++) {
+			HEX[i] = -1;
+		}
+		for (int i = 0; i < 10; i++) {
+			HEX['0' + i] = (byte) i;
+		}
+		for (int i = 0; i < 6; i++) {
+			HEX['a' + i] = (byte) (10 + i);
+			HEX['A' + i] = (byte) (10 + i);
+		}
+	}
+
+	/**
+	 * Converte a forma canônica do UUID. Retorna null se o valor for nulo ou não for um UUID válido.
+	 */
+	public static UUID parse(String value) {
+		if (value == null || value.length() != LENGTH
+				|| value.charAt(8) != '-' || value.charAt(13) != '-' || value.charAt(18) != '-' || value.charAt(23) != '-') {
+			return null;
+		}
+		long mostSignificant = 0;
+		long leastSignificant = 0;
+		int digits = 0;
+		for (int i = 0; i < LENGTH; i++) {
+			if (i == 8 || i == 13 || i == 18 || i == 23) {
+				continue;
+			}
+			char c = value.charAt(i);
+			int digit = c < HEX.length ? HEX[c] : -1;
+			if (digit < 0) {
+				return null;
+			}
+			if (digits++ < 16) {
+				mostSignificant = (mostSignificant << 4) | digit;
+			}
+			else {
+				leastSignificant = (leastSignificant << 4) | digit;
+			}
+		}
+		return new UUID(mostSignificant, leastSignificant);
+	}
+
+}
@@ -1,4 +0,0 @@
-DELETE FROM STORE;
-INSERT INTO STORE(id, name, address) VALUES ('da0d2b85-d9a3-403a-a24a-e0a18d719d1e', 'Rio de Janeiro', 'Copacabana, Rio de Janeiro/RJ');
-INSERT INTO STORE(id, name, address) VALUES ('2931d353-0aec-40d4-81ef-38524afef3b2', 'São Paulo', 'Jardins, São Paulo/SP');
-INSERT INTO STORE(id, name, address) VALUES ('10fce01d-3b6f-4d80-9444-139305a162e4', 'Manaus', 'Glória, Manaus/AM');
\ No newline at end of file
@@ -0,0 +1,24 @@
+-- Índice de trigramas usado pela busca de Stores por 'name' e 'address' (contém, sem diferenciar maiúsculas).
+-- É mantido pelo StoreTrigramTrigger, de forma que a busca não precise varrer a tabela STORE inteira.
+-- Os comandos usam IF NOT EXISTS porque os bancos criados pelo antigo schema.sql podem já possuir a tabela e o trigger.
+
+CREATE TABLE IF NOT EXISTS STORE_TRIGRAM (
+	store_id UUID NOT NULL,
+	field CHAR(1) NOT NULL,
+	gram VARCHAR(3) NOT NULL,
+	PRIMARY KEY(gram, field, store_id)
+);
+
+CREATE INDEX IF NOT EXISTS IDX_STORE_TRIGRAM_STORE ON STORE_TRIGRAM(store_id);
+
+-- Trigramas das Stores já existentes (o trigger só indexa as escritas feitas após a sua criação). O MERGE mantém as
+-- linhas de uma Store já indexada.
+MERGE INTO STORE_TRIGRAM(store_id, field, gram) KEY(gram, field, store_id)
+	SELECT DISTINCT s.id, 'N', SUBSTRING(LOWER(s.name), r.X, 3) FROM STORE s, SYSTEM_RANGE(1, 253) r
+	WHERE r.X <= LENGTH(s.name) - 2
+	UNION
+	SELECT DISTINCT s.id, 'A', SUBSTRING(LOWER(s.address), r.X, 3) FROM STORE s, SYSTEM_RANGE(1, 253) r
+	WHERE r.X <= LENGTH(s.address) - 2;
+
+CREATE TRIGGER IF NOT EXISTS TRG_STORE_TRIGRAM AFTER INSERT, UPDATE, DELETE ON STORE FOR EACH ROW
+	CALL "com.invillia.acme.repository.trigger.StoreTrigramTrigger";
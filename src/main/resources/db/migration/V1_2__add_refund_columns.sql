@@ -0,0 +1,8 @@
+-- Colunas dos estornos: o prazo de estorno da Order (preenchido na aprovação do pagamento) e o valor e a data de cada
+-- Refund. Os comandos usam IF NOT EXISTS porque os bancos criados pelo antigo schema.sql podem já possuir as colunas.
+
+ALTER TABLE "ORDER" ADD COLUMN IF NOT EXISTS refundable_until TIMESTAMP;
+
+ALTER TABLE REFUND ADD COLUMN IF NOT EXISTS amount DECIMAL(12,2);
+
+ALTER TABLE REFUND ADD COLUMN IF NOT EXISTS refund_date TIMESTAMP;
@@ -0,0 +1,4 @@
+-- Versão da Store, usada pelo controle de concorrência otimista (ETag/If-Match) da atualização de Stores.
+-- O comando usa IF NOT EXISTS porque os bancos criados pelo antigo schema.sql podem já possuir a coluna.
+
+ALTER TABLE STORE ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
@@ -1,3 +1,7 @@
+-- Schema inicial, idêntico ao antigo schema.sql. As colunas e tabelas acrescentadas depois vêm nas migrations
+-- seguintes (V1_1 em diante).
+-- Bancos criados antes das migrations (pelo antigo schema.sql) são registrados nesta versão pelo baseline do Flyway.
+
 CREATE TABLE IF NOT EXISTS STORE (
 	id UUID NOT NULL,
 	name VARCHAR(255),
@@ -43,4 +47,4 @@ CREATE TABLE IF NOT EXISTS REFUND (
 	PRIMARY KEY(id),
 	FOREIGN KEY(order_id) REFERENCES "ORDER"(id),
 	FOREIGN KEY(order_item_id) REFERENCES ORDER_ITEM(id),
-);
\ No newline at end of file
+);
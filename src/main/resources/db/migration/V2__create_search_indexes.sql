@@ -0,0 +1,24 @@
+-- Índices das buscas de Stores e Orders, da recuperação de Payments e dos estornos.
+-- Os comandos usam IF NOT EXISTS porque os bancos criados pelo antigo schema.sql podem já possuir estes índices.
+--
+-- Os índices ficam em migrations próprias, separadas das alterações de colunas: no H2 o CREATE INDEX bloqueia a
+-- tabela enquanto o índice é construído, então a migration deve conter apenas índices e ser aplicada fora do pico.
+
+-- Índice da ordenação (name, id) usada pela paginação por keyset de GET /stores.
+CREATE INDEX IF NOT EXISTS IDX_STORE_NAME_ID ON STORE(name, id);
+
+-- Índice usado pela recuperação dos Payments que ficaram PENDING.
+CREATE INDEX IF NOT EXISTS IDX_PAYMENT_STATUS_DATE ON PAYMENT(status, payment_date);
+
+-- Índices da busca de Orders (GET /orders), na ordem (confirmation_date, id) usada pela paginação por keyset.
+-- As colunas filtradas por igualdade vêm antes da data, para que a janela de datas seja uma faixa contígua do índice.
+-- A busca indica o índice explicitamente (USE INDEX), pois o H2 escolheria o índice da FK, somente com o store_id.
+CREATE INDEX IF NOT EXISTS IDX_ORDER_STORE_STATUS_DATE ON "ORDER"(store_id, status, confirmation_date, id);
+CREATE INDEX IF NOT EXISTS IDX_ORDER_STORE_DATE ON "ORDER"(store_id, confirmation_date, id);
+CREATE INDEX IF NOT EXISTS IDX_ORDER_STATUS_DATE ON "ORDER"(status, confirmation_date, id);
+
+-- Índice da expiração periódica dos prazos de estorno vencidos (RefundService).
+CREATE INDEX IF NOT EXISTS IDX_ORDER_REFUNDABLE_UNTIL ON "ORDER"(refundable_until);
+
+-- Cada item pode ser estornado apenas uma vez (os estornos da Order inteira possuem order_item_id nulo).
+CREATE UNIQUE INDEX IF NOT EXISTS IDX_REFUND_ORDER_ITEM ON REFUND(order_item_id);
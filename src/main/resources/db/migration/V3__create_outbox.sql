@@ -0,0 +1,26 @@
+-- Outbox das alterações de Stores, Orders e Payments, gravado pelo OutboxTrigger na mesma transação da alteração.
+-- O OutboxRelay publica as linhas pendentes (sequence nulo) e preenche o 'sequence' na ordem da publicação, que é a
+-- posição usada pelo feed GET /changes?since=. O 'id' segue a ordem de inserção, que pode diferir da ordem de commit.
+
+CREATE TABLE OUTBOX (
+	id BIGINT AUTO_INCREMENT NOT NULL,
+	aggregate VARCHAR(10) NOT NULL,
+	aggregate_id UUID NOT NULL,
+	operation VARCHAR(6) NOT NULL,
+	created_at TIMESTAMP NOT NULL,
+	sequence BIGINT,
+	PRIMARY KEY(id)
+);
+
+-- Atende as duas leituras: as pendentes (sequence nulo) e o feed (sequence maior que 'since'). Por ser único, dois
+-- relays publicando ao mesmo tempo não atribuem o mesmo 'sequence' - um deles falha e tenta novamente.
+CREATE UNIQUE INDEX IDX_OUTBOX_SEQUENCE ON OUTBOX(sequence);
+
+CREATE TRIGGER TRG_STORE_OUTBOX AFTER INSERT, UPDATE, DELETE ON STORE FOR EACH ROW
+	CALL "com.invillia.acme.repository.trigger.OutboxTrigger";
+
+CREATE TRIGGER TRG_ORDER_OUTBOX AFTER INSERT, UPDATE, DELETE ON "ORDER" FOR EACH ROW
+	CALL "com.invillia.acme.repository.trigger.OutboxTrigger";
+
+CREATE TRIGGER TRG_PAYMENT_OUTBOX AFTER INSERT, UPDATE, DELETE ON PAYMENT FOR EACH ROW
+	CALL "com.invillia.acme.repository.trigger.OutboxTrigger";
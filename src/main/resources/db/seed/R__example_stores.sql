@@ -0,0 +1,5 @@
+-- Stores de exemplo para o ambiente de desenvolvimento (não é aplicado no perfil 'prod').
+-- Migration repetível: é executada novamente somente quando este arquivo for alterado.
+MERGE INTO STORE(id, name, address) KEY(id) VALUES ('da0d2b85-d9a3-403a-a24a-e0a18d719d1e', 'Rio de Janeiro', 'Copacabana, Rio de Janeiro/RJ');
+MERGE INTO STORE(id, name, address) KEY(id) VALUES ('2931d353-0aec-40d4-81ef-38524afef3b2', 'São Paulo', 'Jardins, São Paulo/SP');
+MERGE INTO STORE(id, name, address) KEY(id) VALUES ('10fce01d-3b6f-4d80-9444-139305a162e4', 'Manaus', 'Glória, Manaus/AM');
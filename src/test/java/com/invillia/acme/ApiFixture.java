@@ -0,0 +1,150 @@
+package com.invillia.acme;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invillia.acme.model.Order;
+import com.invillia.acme.model.OrderItem;
+import com.invillia.acme.model.Store;
+
+/**
+ * Dados de teste criados pela própria API (Stores, Orders e Payments), compartilhados pelos testes de integração.
+ */
+public class ApiFixture {
+
+	public static final String STORE_ID = "00acc00e-2745-4ffe-b2be-2c461278ba3e";
+	public static final long VALID_CARD = 4111111111111111L;
+	public static final long INVALID_CARD = 4111111111111112L;
+
+	private static final String ORDER_ADDRESS = "Rua A, 100 - Centro, Aracaju/SE";
+	private static final long AWAIT_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(10);
+	private static final long AWAIT_INTERVAL_MS = 20;
+
+	private final MockMvc mockMvc;
+	private final ObjectMapper objectMapper;
+
+	public ApiFixture(MockMvc mockMvc, ObjectMapper objectMapper) {
+		this.mockMvc = mockMvc;
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * Cria a Store e retorna o seu id.
+	 */
+	public String createStore(String name, String address) throws Exception {
+		MvcResult result = mockMvc.perform(post("/stores/")
+			.content(objectMapper.writeValueAsString(new Store(name, address)))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isCreated())
+			.andReturn();
+		return read(result).get("id").asText();
+	}
+
+	/**
+	 * Cria a Order e retorna o JSON da resposta (com os ids dos itens).
+	 */
+	public JsonNode createOrder(Order order) throws Exception {
+		MvcResult result = mockMvc.perform(post("/orders")
+			.content(objectMapper.writeValueAsString(order))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isCreated())
+			.andReturn();
+		return read(result);
+	}
+
+	public JsonNode createOrder(String storeId, OrderItem... items) throws Exception {
+		return createOrder(order(storeId, items));
+	}
+
+	/**
+	 * Cria a Order e aguarda a aprovação do seu pagamento, retornando o JSON da Order criada.
+	 */
+	public JsonNode createPaidOrder(String storeId, OrderItem... items) throws Exception {
+		JsonNode order = createOrder(storeId, items);
+		String status = awaitPayment(submitPayment(order.get("id").asText(), VALID_CARD));
+		if (!"APPROVED".equals(status)) {
+			throw new AssertionError(String.format("O pagamento da Order não foi aprovado [%s].", status));
+		}
+		return order;
+	}
+
+	/**
+	 * Submete o pagamento da Order e retorna o id do Payment criado (PENDING).
+	 */
+	public String submitPayment(String orderId, long creditCard) throws Exception {
+		MvcResult result = mockMvc.perform(post("/orders/" + orderId + "/payments")
+			.content(payment(creditCard))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isAccepted())
+			.andReturn();
+		return read(result).get("id").asText();
+	}
+
+	/**
+	 * Aguarda a conclusão do Payment pelo PaymentProcessor, retornando o seu status final. A Order é concluída na
+	 * mesma transação, então já está COMPLETED quando o Payment é APPROVED.
+	 */
+	public String awaitPayment(String paymentId) throws Exception {
+		String[] status = new String[1];
+		await("conclusão do Payment " + paymentId, () -> {
+			MvcResult result = mockMvc.perform(get("/payments/" + paymentId))
+				.andExpect(status().isOk())
+				.andReturn();
+			status[0] = read(result).get("status").asText();
+			return !"PENDING".equals(status[0]);
+		});
+		return status[0];
+	}
+
+	/**
+	 * Aguarda a condição ser verdadeira, por no máximo 10 segundos.
+	 */
+	public static void await(String description, Callable<Boolean> condition) throws Exception {
+		long deadline = System.currentTimeMillis() + AWAIT_TIMEOUT_MS;
+		while (!condition.call()) {
+			if (System.currentTimeMillis() > deadline) {
+				throw new AssertionError("Tempo esgotado aguardando: " + description);
+			}
+			Thread.sleep(AWAIT_INTERVAL_MS);
+		}
+	}
+
+	public static Order order(String storeId, OrderItem... items) {
+		Order order = new Order();
+		order.setStoreId(storeId == null ? null : UUID.fromString(storeId));
+		order.setAddress(ORDER_ADDRESS);
+		order.setItems(Arrays.asList(items));
+		return order;
+	}
+
+	public static OrderItem item(String unitPrice, int quantity) {
+		OrderItem item = new OrderItem();
+		item.setDescription("Produto");
+		item.setUnitPrice(new BigDecimal(unitPrice));
+		item.setQuantity(quantity);
+		return item;
+	}
+
+	// O 'creditCard' não é serializado pelo Payment, então o JSON da requisição é montado manualmente.
+	public static String payment(long creditCard) {
+		return "{\"creditCard\": " + creditCard + "}";
+	}
+
+	public JsonNode read(MvcResult result) throws Exception {
+		return objectMapper.readTree(result.getResponse().getContentAsString());
+	}
+
+}
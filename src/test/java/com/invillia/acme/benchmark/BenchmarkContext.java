@@ -0,0 +1,95 @@
+package com.invillia.acme.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.invillia.acme.InvilliaApplication;
+
+/**
+ * Utilitários compartilhados pelos benchmarks: sobe a aplicação (sem servidor web, ou com ele para os testes de
+ * carga) com um banco H2 exclusivo, e popula a tabela STORE com a quantidade de registros desejada.
+ * 
+ * @author Daniel
+ */
+public class BenchmarkContext {
+
+	static final String[] CITIES = { "Aracaju", "Belo Horizonte", "Curitiba", "Fortaleza", "Manaus", "Porto Alegre",
+			"Recife", "Rio de Janeiro", "Salvador", "São Paulo" };
+	static final String[] STATES = { "SE", "MG", "PR", "CE", "AM", "RS", "PE", "RJ", "BA", "SP" };
+
+	private static final int INSERT_BATCH = 1000;
+
+	public static ConfigurableApplicationContext start(String... properties) {
+		return start(WebApplicationType.NONE, true, properties);
+	}
+
+	/**
+	 * Sobe a aplicação sem servidor web com o perfil informado, usando o banco configurado por ele (ex.: o H2 em
+	 * arquivo do perfil 'prod') no lugar do banco em memória exclusivo.
+	 */
+	public static ConfigurableApplicationContext startProfile(String profile, String... properties) {
+		String[] withProfile = new String[properties.length + 1];
+		System.arraycopy(properties, 0, withProfile, 0, properties.length);
+		withProfile[properties.length] = "spring.profiles.active=" + profile;
+		return start(WebApplicationType.NONE, false, withProfile);
+	}
+
+	/**
+	 * Sobe a aplicação com o servidor web (Tomcat) em uma porta aleatória, para os testes de carga HTTP.
+	 */
+	public static ConfigurableApplicationContext startServer(String... properties) {
+		String[] withPort = new String[properties.length + 1];
+		System.arraycopy(properties, 0, withPort, 0, properties.length);
+		withPort[properties.length] = "server.port=0";
+		return start(WebApplicationType.SERVLET, true, withPort);
+	}
+
+	private static ConfigurableApplicationContext start(WebApplicationType webApplicationType, boolean inMemory,
+			String... properties) {
+		// Informadas como argumentos, as propriedades têm precedência sobre o application.properties.
+		List<String> args = new ArrayList<>();
+		if (inMemory) {
+			args.add("--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+		}
+		args.add("--spring.jpa.show-sql=false");
+		args.add("--logging.level.root=WARN");
+		for (String property : properties) {
+			args.add("--" + property);
+		}
+		return new SpringApplicationBuilder(InvilliaApplication.class)
+				.web(webApplicationType)
+				.bannerMode(Banner.Mode.OFF)
+				.run(args.toArray(new String[0]));
+	}
+
+	/**
+	 * Insere 'rows' Stores com nomes e endereços determinísticos e retorna os seus IDs.
+	 */
+	public static List<UUID> seedStores(ConfigurableApplicationContext context, int rows) {
+		JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+		Random random = new Random(42);
+		List<UUID> ids = new ArrayList<>(rows);
+		List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+		for (int i = 0; i < rows; i++) {
+			int city = random.nextInt(CITIES.length);
+			UUID id = new UUID(random.nextLong(), random.nextLong());
+			ids.add(id);
+			batch.add(new Object[] { id, String.format("Loja %07d %s", i, CITIES[city]),
+					String.format("Rua %d, Centro, %s/%s", random.nextInt(5000), CITIES[city], STATES[city]) });
+			if (batch.size() == INSERT_BATCH || i == rows - 1) {
+				jdbc.batchUpdate("INSERT INTO STORE(id, name, address) VALUES (?, ?, ?)", batch);
+				batch.clear();
+			}
+		}
+		return ids;
+	}
+
+}
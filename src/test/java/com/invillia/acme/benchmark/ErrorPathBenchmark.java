@@ -0,0 +1,116 @@
+package com.invillia.acme.benchmark;
+
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import com.invillia.acme.controller.StoreController;
+import com.invillia.acme.dto.StoreView;
+import com.invillia.acme.repository.StoreRepository;
+import com.invillia.acme.utils.Uuids;
+
+/**
+ * Benchmarks dos caminhos de erro de GET /stores/{id}: ID inválido (400) e Store inexistente (404). <br><br>
+ *
+ * Os pares 'exception*' e 'uuids*' comparam a forma anterior (UUID.fromString e Optional.get, com as exceções
+ * IllegalArgumentException e NoSuchElementException tratadas como fluxo normal) com a atual (Uuids.parse e
+ * Optional.orElse). Os benchmarks 'controller*' chamam o StoreController diretamente, sem o Spring MVC, e medem o
+ * caminho completo da requisição: conversão do ID, busca no cache e criação do ApiError.
+ *
+ * @author Daniel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+	private static final String VALID_ID = "227a9218-214d-43df-a511-58d7e84d7ed2";
+	private static final String INVALID_ID = "227a9218-214d-43df-a511-58d7e84d7edz";
+
+	private ConfigurableApplicationContext context;
+	private StoreRepository repository;
+	private StoreController controller;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkContext.start();
+		repository = context.getBean(StoreRepository.class);
+		controller = context.getBean(StoreController.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public UUID exceptionParseValid() {
+		return UUID.fromString(VALID_ID);
+	}
+
+	@Benchmark
+	public UUID uuidsParseValid() {
+		return Uuids.parse(VALID_ID);
+	}
+
+	@Benchmark
+	public UUID exceptionParseInvalid() {
+		try {
+			return UUID.fromString(INVALID_ID);
+		}
+		catch (IllegalArgumentException ex) {
+			return null;
+		}
+	}
+
+	@Benchmark
+	public UUID uuidsParseInvalid() {
+		return Uuids.parse(INVALID_ID);
+	}
+
+	@Benchmark
+	public StoreView exceptionNotFound() {
+		Optional<StoreView> store = repository.findCachedById(UUID.fromString(VALID_ID));
+		try {
+			return store.get();
+		}
+		catch (NoSuchElementException ex) {
+			return null;
+		}
+	}
+
+	@Benchmark
+	public StoreView uuidsNotFound() {
+		return repository.findCachedById(Uuids.parse(VALID_ID)).orElse(null);
+	}
+
+	@Benchmark
+	public ResponseEntity<?> controllerInvalidId() {
+		return controller.retrieveStoreById(INVALID_ID);
+	}
+
+	@Benchmark
+	public ResponseEntity<?> controllerUnknownId() {
+		return controller.retrieveStoreById(VALID_ID);
+	}
+
+}
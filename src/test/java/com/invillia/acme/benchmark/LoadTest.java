@@ -0,0 +1,151 @@
+package com.invillia.acme.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Teste de carga HTTP que compara os modos de execução 'servlet' e 'async' (acme.web.execution-mode). <br><br>
+ *
+ * Para cada modo, sobe a aplicação com o Tomcat limitado a poucas threads, popula a tabela STORE e mantém
+ * <b>concorrência</b> clientes (conexões keep-alive) fazendo requisições sem pausa durante o tempo informado: metade
+ * busca uma Store pelo ID e metade busca uma página de Stores por 'name'. Ao final de cada modo são exibidos a vazão,
+ * os percentis de latência, os erros e o pico de threads da JVM. <br><br>
+ *
+ * Uso: LoadTest [concorrência=1000] [segundos por modo=20] [threads do Tomcat=20] [stores=10000]
+ *
+ * @author Daniel
+ */
+public class LoadTest {
+
+	private static final String[] MODES = { "servlet", "async" };
+
+	private static final String[] CITIES = Arrays.stream(BenchmarkContext.CITIES).map(LoadTest::encode).toArray(String[]::new);
+
+	public static void main(String[] args) throws Exception {
+		int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+		int tomcatThreads = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+		int rows = args.length > 3 ? Integer.parseInt(args[3]) : 10000;
+
+		// Mantém uma conexão keep-alive por cliente.
+		System.setProperty("http.maxConnections", String.valueOf(concurrency));
+
+		System.out.printf("%-8s %10s %10s %10s %10s %10s %8s%n", "mode", "req/s", "p50 ms", "p99 ms", "max ms", "errors", "threads");
+		for (String mode : MODES) {
+			run(mode, concurrency, seconds, tomcatThreads, rows);
+		}
+		// Encerra as threads que ainda estejam presas a conexões keep-alive.
+		System.exit(0);
+	}
+
+	private static void run(String mode, int concurrency, int seconds, int tomcatThreads, int rows) throws Exception {
+		ConfigurableApplicationContext context = BenchmarkContext.startServer(
+				"acme.web.execution-mode=" + mode,
+				"server.tomcat.max-threads=" + tomcatThreads,
+				"server.tomcat.max-connections=" + (concurrency + 100));
+		try {
+			List<UUID> ids = BenchmarkContext.seedStores(context, rows);
+			String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+					+ context.getEnvironment().getProperty("server.servlet.context-path", "");
+
+			AtomicLong errors = new AtomicLong();
+			long[][] latencies = new long[concurrency][];
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+			CountDownLatch done = new CountDownLatch(concurrency);
+			ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+
+			for (int i = 0; i < concurrency; i++) {
+				int client = i;
+				Thread thread = new Thread(() -> {
+					try {
+						latencies[client] = load(base, ids, deadline, errors);
+					}
+					finally {
+						done.countDown();
+					}
+				}, "load-" + i);
+				thread.setDaemon(true);
+				thread.start();
+			}
+			done.await();
+
+			long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+			// O pico inclui as threads dos clientes, que são as mesmas nos dois modos.
+			int peakThreads = ManagementFactory.getThreadMXBean().getPeakThreadCount() - concurrency;
+			System.out.printf("%-8s %10.0f %10.1f %10.1f %10.1f %10d %8d%n", mode, all.length / (double) seconds,
+					percentile(all, 0.5), percentile(all, 0.99), percentile(all, 1), errors.get(), peakThreads);
+		}
+		finally {
+			context.close();
+		}
+	}
+
+	private static long[] load(String base, List<UUID> ids, long deadline, AtomicLong errors) {
+		List<Long> latencies = new ArrayList<>();
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		while (System.nanoTime() < deadline) {
+			String path = random.nextBoolean()
+					? "/stores/" + ids.get(random.nextInt(ids.size()))
+					: "/stores?limit=20&name=" + CITIES[random.nextInt(CITIES.length)];
+			long start = System.nanoTime();
+			try {
+				HttpURLConnection connection = (HttpURLConnection) new URL(base + path).openConnection();
+				if (connection.getResponseCode() != 200) {
+					errors.incrementAndGet();
+				}
+				// Consome o corpo para que a conexão volte ao pool de keep-alive.
+				try (InputStream body = connection.getResponseCode() < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+					drain(body);
+				}
+				latencies.add(System.nanoTime() - start);
+			}
+			catch (IOException ex) {
+				errors.incrementAndGet();
+			}
+		}
+		return latencies.stream().mapToLong(Long::longValue).toArray();
+	}
+
+	private static String encode(String value) {
+		try {
+			return URLEncoder.encode(value, "UTF-8");
+		}
+		catch (UnsupportedEncodingException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static void drain(InputStream body) throws IOException {
+		if (body == null) {
+			return;
+		}
+		byte[] buffer = new byte[8192];
+		while (body.read(buffer) >= 0) {
+			// descarta
+		}
+	}
+
+	private static double percentile(long[] sorted, double percentile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.ceil(percentile * sorted.length) - 1;
+		return sorted[Math.max(0, index)] / 1_000_000.0;
+	}
+
+}
@@ -0,0 +1,148 @@
+package com.invillia.acme.benchmark;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.invillia.acme.model.Order;
+import com.invillia.acme.model.OrderItem;
+import com.invillia.acme.model.OrderStatus;
+import com.invillia.acme.model.Store;
+import com.invillia.acme.repository.OrderRepository;
+import com.invillia.acme.repository.StoreRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * Teste de resistência (soak) do perfil 'prod': H2 em arquivo, pool Hikari e lotes JDBC dimensionados. <br><br>
+ *
+ * Sobe a aplicação com o perfil 'prod' em um diretório temporário, popula a tabela STORE e mantém <b>threads</b>
+ * clientes executando uma carga mista pelos repositórios durante o tempo informado: 40% busca pelo ID (cache), 20%
+ * busca por 'name', 25% criação de Order com 3 itens, 10% atualização de Store e 5% criação de Store. A cada
+ * intervalo são exibidos as transações por segundo (TPS), a maior latência e o estado do pool de conexões; ao
+ * final, o TPS sustentado no período inteiro. <br><br>
+ *
+ * Uso: SoakTest [threads=16] [minutos=10] [intervalo em segundos=10] [stores=10000]
+ *
+ * @author Daniel
+ */
+public class SoakTest {
+
+	public static void main(String[] args) throws Exception {
+		int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+		int minutes = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+		int intervalSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+		int rows = args.length > 3 ? Integer.parseInt(args[3]) : 10000;
+
+		File dataDir = Files.createTempDirectory("acme-soak").toFile();
+		ConfigurableApplicationContext context = BenchmarkContext.startProfile("prod",
+				"acme.data-dir=" + dataDir.getAbsolutePath());
+		try {
+			List<UUID> ids = BenchmarkContext.seedStores(context, rows);
+			StoreRepository stores = context.getBean(StoreRepository.class);
+			OrderRepository orders = context.getBean(OrderRepository.class);
+			HikariPoolMXBean pool = context.getBean(HikariDataSource.class).getHikariPoolMXBean();
+
+			LongAdder transactions = new LongAdder();
+			LongAdder errors = new LongAdder();
+			AtomicLong maxLatency = new AtomicLong();
+			long start = System.nanoTime();
+			long deadline = start + TimeUnit.MINUTES.toNanos(minutes);
+			CountDownLatch done = new CountDownLatch(threads);
+
+			for (int i = 0; i < threads; i++) {
+				Thread thread = new Thread(() -> {
+					try {
+						while (System.nanoTime() < deadline) {
+							long begin = System.nanoTime();
+							try {
+								execute(stores, orders, ids);
+								transactions.increment();
+							}
+							catch (RuntimeException ex) {
+								errors.increment();
+							}
+							long latency = System.nanoTime() - begin;
+							maxLatency.accumulateAndGet(latency, Math::max);
+						}
+					}
+					finally {
+						done.countDown();
+					}
+				}, "soak-" + i);
+				thread.setDaemon(true);
+				thread.start();
+			}
+
+			System.out.printf("%8s %10s %10s %8s %8s %8s%n", "time s", "tps", "max ms", "active", "waiting", "errors");
+			long previous = 0;
+			while (!done.await(intervalSeconds, TimeUnit.SECONDS)) {
+				long total = transactions.sum();
+				System.out.printf("%8d %10.0f %10.1f %8d %8d %8d%n", TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start),
+						(total - previous) / (double) intervalSeconds, maxLatency.getAndSet(0) / 1_000_000.0,
+						pool.getActiveConnections(), pool.getThreadsAwaitingConnection(), errors.sum());
+				previous = total;
+			}
+
+			double elapsed = (System.nanoTime() - start) / 1_000_000_000.0;
+			System.out.printf("TPS sustentado: %.0f (%d transações em %.0f s, %d erros)%n", transactions.sum() / elapsed,
+					transactions.sum(), elapsed, errors.sum());
+		}
+		finally {
+			context.close();
+		}
+	}
+
+	private static void execute(StoreRepository stores, OrderRepository orders, List<UUID> ids) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		UUID storeId = ids.get(random.nextInt(ids.size()));
+		int operation = random.nextInt(100);
+		if (operation < 40) {
+			stores.findCachedById(storeId);
+		}
+		else if (operation < 60) {
+			stores.findByParameters(BenchmarkContext.CITIES[random.nextInt(BenchmarkContext.CITIES.length)], null, null, null, 20);
+		}
+		else if (operation < 85) {
+			orders.create(newOrder(storeId, random));
+		}
+		else if (operation < 95) {
+			stores.update(storeId, null, String.format("Rua %d, Centro", random.nextInt(5000)));
+		}
+		else {
+			Store store = new Store("Loja " + random.nextInt(), "Rua Nova, Centro");
+			store.setId(UUID.randomUUID());
+			stores.save(store);
+		}
+	}
+
+	private static Order newOrder(UUID storeId, ThreadLocalRandom random) {
+		List<OrderItem> items = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			OrderItem item = new OrderItem();
+			item.setDescription("Produto " + i);
+			item.setUnitPrice(BigDecimal.valueOf(random.nextInt(1, 10000), 2));
+			item.setQuantity(random.nextInt(1, 5));
+			items.add(item);
+		}
+		Order order = new Order();
+		order.setStoreId(storeId);
+		order.setAddress("Rua A, 100 - Centro");
+		order.setConfirmationDate(new Date());
+		order.setStatus(OrderStatus.PAYMENT_PENDING);
+		order.setItems(items);
+		return order;
+	}
+
+}
@@ -0,0 +1,166 @@
+package com.invillia.acme.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.invillia.acme.InvilliaApplication;
+
+/**
+ * Benchmark da inicialização da aplicação no perfil 'prod', com e sem as otimizações de subida (StartupConfig). <br><br>
+ *
+ * Cada execução sobe a aplicação em um processo novo e mede o tempo até a primeira requisição respondida
+ * (GET /stores/{id}, que passa pelo JPA) e a memória residente (RSS, lida de /proc) logo após essa requisição.
+ * A primeira execução de cada modo aplica as migrations no banco e é descartada. São exibidas a mediana e o
+ * mínimo de cada modo. <br><br>
+ *
+ * Uso: StartupBenchmark [execuções=5] [limite em ms para o modo enxuto=0] <br>
+ * Se o limite for informado e a mediana do modo enxuto passar dele, o processo termina com código 1, para que uma
+ * regressão interrompa o build que executa o benchmark.
+ *
+ * @author Daniel
+ */
+public class StartupBenchmark {
+
+	private static final String[] EAGER = { "--acme.startup.lazy-init=false", "--acme.swagger.enabled=true",
+			"--spring.jmx.enabled=true", "--spring.data.jpa.repositories.bootstrap-mode=default" };
+
+	private static final long TIMEOUT_MS = TimeUnit.MINUTES.toMillis(2);
+
+	public static void main(String[] args) throws Exception {
+		int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+		long maxLeanMs = args.length > 1 ? Long.parseLong(args[1]) : 0;
+
+		System.out.printf("%-6s %12s %12s %12s%n", "mode", "median ms", "min ms", "median RSS MB");
+		measure("eager", EAGER, runs);
+		long leanMedian = measure("lean", new String[0], runs);
+
+		if (maxLeanMs > 0 && leanMedian > maxLeanMs) {
+			System.out.printf("A subida no modo enxuto (%d ms) passou do limite de %d ms.%n", leanMedian, maxLeanMs);
+			System.exit(1);
+		}
+	}
+
+	private static long measure(String mode, String[] properties, int runs) throws Exception {
+		File dataDir = Files.createTempDirectory("acme-startup").toFile();
+		List<Long> times = new ArrayList<>();
+		List<Long> rss = new ArrayList<>();
+		for (int i = 0; i <= runs; i++) {
+			long[] result = start(dataDir, properties);
+			if (i > 0) {
+				times.add(result[0]);
+				rss.add(result[1]);
+			}
+		}
+		Collections.sort(times);
+		Collections.sort(rss);
+		long median = times.get(times.size() / 2);
+		System.out.printf("%-6s %12d %12d %12s%n", mode, median, times.get(0),
+				rss.get(0) < 0 ? "n/a" : String.valueOf(rss.get(rss.size() / 2) / 1024));
+		return median;
+	}
+
+	/**
+	 * Sobe a aplicação e retorna o tempo até a primeira resposta (ms) e o RSS (KB, ou -1 fora do Linux).
+	 */
+	private static long[] start(File dataDir, String[] properties) throws Exception {
+		int port = freePort();
+		List<String> command = new ArrayList<>();
+		command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(InvilliaApplication.class.getName());
+		command.add("--spring.profiles.active=prod");
+		command.add("--acme.data-dir=" + dataDir.getAbsolutePath());
+		command.add("--server.port=" + port);
+		command.add("--logging.level.root=WARN");
+		command.addAll(Arrays.asList(properties));
+
+		// O shell imprime o PID e é substituído pela JVM (exec), para que o RSS seja lido do processo certo.
+		StringBuilder shell = new StringBuilder("echo $$; exec");
+		for (String argument : command) {
+			shell.append(" '").append(argument.replace("'", "'\\''")).append('\'');
+		}
+		long begin = System.nanoTime();
+		Process process = new ProcessBuilder("sh", "-c", shell.toString()).redirectErrorStream(true).start();
+		try {
+			BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+			String pid = output.readLine();
+			drain(output);
+
+			URL url = new URL("http://localhost:" + port + "/api/v1/stores/" + UUID.randomUUID());
+			while (!responds(url)) {
+				if (!process.isAlive() || TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin) > TIMEOUT_MS) {
+					throw new IllegalStateException("A aplicação não respondeu à primeira requisição.");
+				}
+				Thread.sleep(10);
+			}
+			long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+			return new long[] { elapsed, rss(pid) };
+		}
+		finally {
+			process.destroy();
+			process.waitFor(30, TimeUnit.SECONDS);
+		}
+	}
+
+	private static boolean responds(URL url) {
+		try {
+			HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+			connection.setConnectTimeout(100);
+			return connection.getResponseCode() > 0;
+		}
+		catch (IOException ex) {
+			return false;
+		}
+	}
+
+	private static long rss(String pid) throws IOException {
+		File status = new File("/proc/" + pid + "/status");
+		if (!status.exists()) {
+			return -1;
+		}
+		for (String line : Files.readAllLines(status.toPath(), StandardCharsets.UTF_8)) {
+			if (line.startsWith("VmRSS:")) {
+				return Long.parseLong(line.replaceAll("[^0-9]", ""));
+			}
+		}
+		return -1;
+	}
+
+	private static void drain(BufferedReader output) {
+		// Consome a saída da aplicação em segundo plano para que ela não bloqueie ao escrever no log.
+		Thread thread = new Thread(() -> {
+			try {
+				while (output.readLine() != null) {
+					// descarta
+				}
+			}
+			catch (IOException ex) {
+				// o processo foi encerrado
+			}
+		}, "startup-output");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+
+}
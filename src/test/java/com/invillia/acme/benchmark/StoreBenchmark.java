@@ -0,0 +1,123 @@
+package com.invillia.acme.benchmark;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invillia.acme.dto.StoreView;
+import com.invillia.acme.model.Store;
+import com.invillia.acme.repository.StoreRepository;
+
+/**
+ * Benchmarks dos caminhos mais usados das Stores: busca pelo ID (com e sem cache), busca por 'name' e 'address'
+ * e serialização JSON de uma Store (com e sem o JSON mantido no cache) e de uma página de Stores. <br><br>
+ * 
+ * A quantidade de Stores na tabela é definida pelo parâmetro 'rows' (ex.: -p rows=10000,100000,1000000).
+ * 
+ * @author Daniel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StoreBenchmark {
+
+	private static final int PAGE_SIZE = 50;
+
+	@Param({ "10000" })
+	public int rows;
+
+	private ConfigurableApplicationContext context;
+	private StoreRepository repository;
+	private ObjectMapper objectMapper;
+	private List<UUID> ids;
+	private Store store;
+	private StoreView view;
+	private List<StoreView> page;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkContext.start();
+		repository = context.getBean(StoreRepository.class);
+		objectMapper = context.getBean(ObjectMapper.class);
+		ids = BenchmarkContext.seedStores(context, rows);
+		store = repository.findById(ids.get(0)).get();
+		view = repository.findCachedById(ids.get(0)).get();
+		page = repository.findByParameters("loja", null, null, null, PAGE_SIZE);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Store findById() {
+		return repository.findById(randomId()).orElse(null);
+	}
+
+	@Benchmark
+	public StoreView findCachedById() {
+		return repository.findCachedById(randomId()).orElse(null);
+	}
+
+	@Benchmark
+	public List<StoreView> searchByName() {
+		return repository.findByParameters("ortaleza", null, null, null, PAGE_SIZE);
+	}
+
+	@Benchmark
+	public List<StoreView> searchByAddress() {
+		return repository.findByParameters(null, "centro, recife", null, null, PAGE_SIZE);
+	}
+
+	@Benchmark
+	public List<StoreView> searchByRareName() {
+		return repository.findByParameters(String.format("%07d", ThreadLocalRandom.current().nextInt(rows)), null, null, null, PAGE_SIZE);
+	}
+
+	@Benchmark
+	public byte[] serializeStore() throws Exception {
+		return objectMapper.writeValueAsBytes(store);
+	}
+
+	@Benchmark
+	public byte[] serializeStoreView() throws Exception {
+		return objectMapper.writeValueAsBytes(view);
+	}
+
+	// O JSON mantido na StoreView em cache (acme.stores.serialized-cache), como em GET /stores/{id}.
+	@Benchmark
+	public byte[] serializeCachedStoreView() throws Exception {
+		return view.toJson(objectMapper);
+	}
+
+	@Benchmark
+	public byte[] serializeStorePage() throws Exception {
+		return objectMapper.writeValueAsBytes(page);
+	}
+
+	private UUID randomId() {
+		return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+	}
+
+}
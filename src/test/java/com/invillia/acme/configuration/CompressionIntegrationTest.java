@@ -0,0 +1,84 @@
+package com.invillia.acme.configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invillia.acme.InvilliaApplication;
+
+/**
+ * Testa a compressão gzip das respostas no Tomcat: as páginas grandes de Stores são comprimidas e uma única Store
+ * (abaixo de server.compression.min-response-size) não é.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, classes = InvilliaApplication.class)
+public class CompressionIntegrationTest {
+
+	private static final String STORE_ID = "00acc00e-2745-4ffe-b2be-2c461278ba3e";
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	public void retrieveStores_givenLargePage_thenGzipCompressed() throws Exception {
+
+		// Given
+		for (int i = 0; i < 40; i++) {
+			jdbcTemplate.update("INSERT INTO STORE(id, name, address) VALUES (?, ?, ?)", UUID.randomUUID(),
+					"Compressão " + i, "Avenida Principal, " + i + " - Centro, Boa Vista/RR");
+		}
+
+		// When
+		HttpURLConnection connection = open("/stores?name=Compress&limit=40");
+
+		// Then assert
+		assertEquals(200, connection.getResponseCode());
+		assertEquals("gzip", connection.getHeaderField("Content-Encoding"));
+		try (InputStream body = new GZIPInputStream(connection.getInputStream())) {
+			JsonNode page = objectMapper.readTree(body);
+			assertEquals(40, page.size());
+		}
+	}
+
+	@Test
+	public void retrieveStore_givenSmallResponse_thenNotCompressed() throws Exception {
+
+		// When
+		HttpURLConnection connection = open("/stores/" + STORE_ID);
+
+		// Then assert
+		assertEquals(200, connection.getResponseCode());
+		assertNull(connection.getHeaderField("Content-Encoding"));
+		try (InputStream body = connection.getInputStream()) {
+			assertEquals(STORE_ID, objectMapper.readTree(body).get("id").asText());
+		}
+	}
+
+	private HttpURLConnection open(String path) throws Exception {
+		HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + "/api/v1" + path).openConnection();
+		connection.setRequestProperty("Accept-Encoding", "gzip");
+		return connection;
+	}
+
+}
@@ -0,0 +1,97 @@
+package com.invillia.acme.configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import javax.sql.DataSource;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.invillia.acme.InvilliaApplication;
+import com.zaxxer.hikari.HikariDataSource;
+
+import springfox.documentation.spring.web.plugins.Docket;
+
+/**
+ * Testa o perfil de produção: banco H2 em arquivo, pool dimensionado, schema migrado sem os dados de exemplo e
+ * inicialização enxuta.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, classes = InvilliaApplication.class,
+		properties = "acme.data-dir=./target/prod-profile-test")
+@ActiveProfiles("prod")
+public class ProdProfileIntegrationTest {
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ConfigurableListableBeanFactory beanFactory;
+
+	@Autowired
+	private Environment environment;
+
+	@Test
+	public void prodProfile_thenFileDatabaseWithTunedPool() throws Exception {
+
+		// Then assert
+		HikariDataSource hikari = (HikariDataSource) dataSource;
+		assertEquals(16, hikari.getMaximumPoolSize());
+		assertTrue(hikari.getJdbcUrl().startsWith("jdbc:h2:file:./target/prod-profile-test/acme;AUTO_SERVER=TRUE"));
+		assertTrue(new File("target/prod-profile-test/acme.mv.db").exists());
+
+		// O schema foi criado pelas migrations, mas os dados de exemplo (db/seed) não foram aplicados.
+		assertEquals(Integer.valueOf(0), jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"success\" = FALSE", Integer.class));
+		assertEquals(Integer.valueOf(0), jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"version\" IS NULL", Integer.class));
+		assertEquals(Integer.valueOf(0), jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM STORE WHERE id = 'da0d2b85-d9a3-403a-a24a-e0a18d719d1e'", Integer.class));
+		assertEquals(Integer.valueOf(0), jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM STORE WHERE id = '00acc00e-2745-4ffe-b2be-2c461278ba3e'", Integer.class));
+	}
+
+	@Test
+	public void prodProfile_thenLeanStartup() throws Exception {
+
+		// Then assert
+		assertEquals(0, beanFactory.getBeanNamesForType(Docket.class).length);
+		assertTrue(beanFactory.getBeanDefinition("storeController").isLazyInit());
+		// Os beans com tarefas agendadas continuam sendo criados na inicialização.
+		assertFalse(beanFactory.getBeanDefinition("refundService").isLazyInit());
+		assertTrue(beanFactory.containsSingleton("refundService"));
+	}
+
+	@Test
+	public void prodProfile_thenLoadSheddingEnabled() throws Exception {
+
+		// Then assert
+		// Os limites ficam desligados por padrão (application.properties) e são ligados somente neste perfil.
+		assertEquals(Double.valueOf(50), environment.getProperty("acme.rate-limit.requests-per-second", Double.class));
+		assertEquals(Boolean.TRUE, environment.getProperty("acme.concurrency-limit.enabled", Boolean.class));
+	}
+
+	@Test
+	public void prodProfile_thenServletExecutionMode() throws Exception {
+
+		// Then assert
+		// O modo async não aumentou a vazão no teste de carga e fica desligado também em produção.
+		assertEquals("servlet", environment.getProperty("acme.web.execution-mode"));
+		assertEquals(0, beanFactory.getBeanNamesForType(WebExecutionConfig.class).length);
+	}
+
+}
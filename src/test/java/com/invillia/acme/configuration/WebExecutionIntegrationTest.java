@@ -0,0 +1,150 @@
+package com.invillia.acme.configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.UUID;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invillia.acme.InvilliaApplication;
+import com.invillia.acme.model.Order;
+import com.invillia.acme.model.OrderItem;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Testa os recursos de Stores e Orders no modo de execução assíncrono (acme.web.execution-mode=async).
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, classes = InvilliaApplication.class,
+		properties = "acme.web.execution-mode=async")
+@AutoConfigureMockMvc
+public class WebExecutionIntegrationTest {
+
+	private static final String STORE_ID = "00acc00e-2745-4ffe-b2be-2c461278ba3e";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Autowired
+	private ThreadPoolTaskExecutor webExecutor;
+
+	@Test
+	public void retrieveStoreById_thenExecutedByWorker() throws Exception {
+
+		// Given
+		long completed = webExecutor.getThreadPoolExecutor().getCompletedTaskCount();
+
+		// When
+		MvcResult result = mockMvc.perform(get("/stores/" + STORE_ID))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		// Then assert
+		mockMvc.perform(asyncDispatch(result))
+			.andExpect(status().isOk())
+			.andExpect(header().exists("ETag"))
+			.andExpect(jsonPath("$.id").value(STORE_ID));
+		assertTrue(webExecutor.getThreadPoolExecutor().getCompletedTaskCount() > completed);
+	}
+
+	@Test
+	public void retrieveStoreById_givenInvalidOrCurrentETag_thenSameResponsesAsServletMode() throws Exception {
+
+		// Then assert
+		mockMvc.perform(dispatch(get("/stores/" + "00acc00e")))
+			.andExpect(status().isBadRequest())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+		mockMvc.perform(dispatch(get("/stores/" + "227a9218-214d-43df-a511-58d7e84d7ed2")))
+			.andExpect(status().isNotFound());
+
+		String etag = mockMvc.perform(dispatch(get("/stores/" + STORE_ID)))
+			.andReturn().getResponse().getHeader("ETag");
+		mockMvc.perform(dispatch(get("/stores/" + STORE_ID).header("If-None-Match", etag)))
+			.andExpect(status().isNotModified());
+	}
+
+	@Test
+	public void createStore_givenIdempotencyKey_thenExecutedByRequestThread() throws Exception {
+
+		// Then assert
+		mockMvc.perform(post("/stores")
+			.header("Idempotency-Key", UUID.randomUUID().toString())
+			.content("{\"name\": \"Teresina\", \"address\": \"Centro, Teresina/PI\"}")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(request().asyncNotStarted())
+			.andExpect(status().isCreated());
+	}
+
+	@Test
+	public void retrieveOrder_thenStatementsCountedAcrossThreads() throws Exception {
+
+		// Given
+		OrderItem item = new OrderItem();
+		item.setDescription("Produto");
+		item.setUnitPrice(new BigDecimal("10.00"));
+		item.setQuantity(1);
+		Order order = new Order();
+		order.setStoreId(UUID.fromString(STORE_ID));
+		order.setAddress("Rua I, 600 - Centro, Aracaju/SE");
+		order.setItems(Collections.singletonList(item));
+
+		MvcResult created = mockMvc.perform(dispatch(post("/orders")
+			.content(objectMapper.writeValueAsString(order))
+			.contentType(MediaType.APPLICATION_JSON)))
+			.andExpect(status().isCreated())
+			.andReturn();
+		String orderId = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asText();
+		double before = statements("/orders/{id}");
+
+		// When
+		mockMvc.perform(dispatch(get("/orders/" + orderId)))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.items.length()").value(1));
+
+		// Then assert
+		assertEquals(1, Math.round(statements("/orders/{id}") - before));
+	}
+
+	private RequestBuilder dispatch(RequestBuilder request) throws Exception {
+		MvcResult result = mockMvc.perform(request)
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		return asyncDispatch(result);
+	}
+
+	private double statements(String uri) {
+		DistributionSummary summary = registry.find("hibernate.statements.per.request").tags("method", "GET", "uri", uri).summary();
+		return summary == null ? 0 : summary.totalAmount();
+	}
+
+}
@@ -0,0 +1,159 @@
+package com.invillia.acme.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invillia.acme.ApiFixture;
+import com.invillia.acme.InvilliaApplication;
+import com.invillia.acme.model.ChangeEvent;
+import com.invillia.acme.outbox.FileEventSink;
+import com.invillia.acme.repository.ChangeEventRepository;
+import com.invillia.acme.service.OutboxRelay;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, classes = InvilliaApplication.class)
+@AutoConfigureMockMvc
+public class ChangeControllerIntegrationTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private OutboxRelay relay;
+
+	@Autowired
+	private ChangeEventRepository repository;
+
+	private ApiFixture fixture;
+
+	@Before
+	public void setUp() {
+		fixture = new ApiFixture(mockMvc, objectMapper);
+	}
+
+	@Test
+	public void retrieveChanges_givenStoreCreatedAndUpdated_thenEventsInPublicationOrder() throws Exception {
+
+		// Given
+		relay.relay();
+		long since = repository.findLastSequence();
+		String storeId = fixture.createStore("Loja Feed", "Rua F, 1 - Centro, Maceió/AL");
+		mockMvc.perform(put("/stores/" + storeId)
+			.content("{\"address\": \"Rua F, 2 - Centro, Maceió/AL\"}")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk());
+
+		// When
+		relay.relay();
+
+		// Then assert
+		List<String> operations = new ArrayList<>();
+		long previous = since;
+		for (JsonNode event : retrieveChanges(since)) {
+			assertEquals(previous + 1, event.get("sequence").asLong());
+			previous = event.get("sequence").asLong();
+			if (storeId.equals(event.get("aggregateId").asText())) {
+				assertEquals("STORE", event.get("aggregate").asText());
+				operations.add(event.get("operation").asText());
+			}
+		}
+		assertEquals(2, operations.size());
+		assertEquals("INSERT", operations.get(0));
+		assertEquals("UPDATE", operations.get(1));
+
+		// A partir do último evento, não há alterações novas.
+		assertEquals(0, retrieveChanges(previous).size());
+	}
+
+	@Test
+	public void retrieveChanges_givenRemovedEvents_thenStatus410Gone() throws Exception {
+
+		// Given
+		fixture.createStore("Loja Feed A", "Rua G, 1 - Centro, Maceió/AL");
+		fixture.createStore("Loja Feed B", "Rua G, 2 - Centro, Maceió/AL");
+		relay.relay();
+		long last = repository.findLastSequence();
+		jdbcTemplate.update("DELETE FROM OUTBOX WHERE sequence < ?", last);
+
+		// Then assert
+		mockMvc.perform(get("/changes").param("since", "0"))
+			.andExpect(status().isGone())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+		assertEquals(1, retrieveChanges(last - 1).size());
+	}
+
+	@Test
+	public void retrieveChanges_givenInvalidParameters_thenStatus400BadRequest() throws Exception {
+
+		// Then assert
+		mockMvc.perform(get("/changes").param("since", "abc"))
+			.andExpect(status().isBadRequest())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+		mockMvc.perform(get("/changes").param("since", "-1"))
+			.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/changes").param("limit", "0"))
+			.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void fileEventSink_givenBatch_thenOneJsonLinePerEvent() throws Exception {
+
+		// Given
+		fixture.createStore("Loja Arquivo", "Rua H, 1 - Centro, Maceió/AL");
+		relay.relay();
+		List<ChangeEvent> events = repository.findPublishedAfter(repository.findLastSequence() - 1, PageRequest.of(0, 10));
+		File file = new File("target/outbox-test/outbox.jsonl");
+		file.delete();
+
+		// When
+		FileEventSink sink = new FileEventSink(file.getPath(), objectMapper);
+		sink.publish(events);
+		sink.publish(events);
+
+		// Then assert
+		List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+		assertEquals(2, lines.size());
+		JsonNode event = objectMapper.readTree(lines.get(0));
+		assertEquals(events.get(0).getSequence().longValue(), event.get("sequence").asLong());
+		assertTrue(event.has("aggregateId"));
+	}
+
+	private JsonNode retrieveChanges(long since) throws Exception {
+		MvcResult result = mockMvc.perform(get("/changes").param("since", String.valueOf(since)).param("limit", "500"))
+			.andExpect(status().isOk())
+			.andReturn();
+		return objectMapper.readTree(result.getResponse().getContentAsString());
+	}
+
+}
@@ -0,0 +1,347 @@
+package com.invillia.acme.controller;
+
+import static com.invillia.acme.ApiFixture.STORE_ID;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invillia.acme.ApiFixture;
+import com.invillia.acme.InvilliaApplication;
+import com.invillia.acme.model.Order;
+import com.invillia.acme.model.OrderItem;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, classes = InvilliaApplication.class)
+@AutoConfigureMockMvc
+public class OrderControllerIntegrationTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private ApiFixture fixture;
+
+	@Before
+	public void setUp() {
+		fixture = new ApiFixture(mockMvc, objectMapper);
+	}
+
+	@Test
+	public void createOrder_givenValidArguments_thenStatus201Created() throws Exception {
+
+		// Given
+		Order newOrder = newOrder(STORE_ID, 55);
+
+		// Then assert
+		MvcResult result = mockMvc.perform(post("/orders")
+			.accept(MediaType.APPLICATION_JSON)
+			.content(objectMapper.writeValueAsString(newOrder))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isCreated())
+			.andExpect(header().exists("Location"))
+			.andExpect(jsonPath("$.status").value("PAYMENT_PENDING"))
+			.andExpect(jsonPath("$.storeId").value(STORE_ID))
+			.andExpect(jsonPath("$.confirmationDate").exists())
+			.andReturn();
+
+		String id = objectMapper.readValue(result.getResponse().getContentAsString(), Order.class).getId().toString();
+		mockMvc.perform(get("/orders/" + id)
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.items.length()").value(55));
+	}
+
+	@Test
+	public void createOrder_givenUnknownStore_thenStatus404NotFound() throws Exception {
+
+		// Given
+		Order newOrder = newOrder("227a9218-214d-43df-a511-58d7e84d7ed2", 2);
+
+		// Then assert
+		mockMvc.perform(post("/orders")
+			.accept(MediaType.APPLICATION_JSON)
+			.content(objectMapper.writeValueAsString(newOrder))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isNotFound())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	public void createOrder_givenAddressLongerThanColumn_thenStatus400BadRequest() throws Exception {
+
+		// Given
+		Order newOrder = newOrder(STORE_ID, 2);
+		newOrder.setAddress(new String(new char[256]).replace('\0', 'A'));
+
+		// Then assert
+		mockMvc.perform(post("/orders")
+			.accept(MediaType.APPLICATION_JSON)
+			.content(objectMapper.writeValueAsString(newOrder))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isBadRequest())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	public void createOrder_givenNoItems_thenStatus400BadRequest() throws Exception {
+
+		// Given
+		Order newOrder = newOrder(STORE_ID, 0);
+
+		// Then assert
+		mockMvc.perform(post("/orders")
+			.accept(MediaType.APPLICATION_JSON)
+			.content(objectMapper.writeValueAsString(newOrder))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isBadRequest())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	public void createOrder_givenItemWithoutQuantity_thenStatus400BadRequest() throws Exception {
+
+		// Given
+		Order newOrder = newOrder(STORE_ID, 2);
+		newOrder.getItems().get(1).setQuantity(0);
+
+		// Then assert
+		mockMvc.perform(post("/orders")
+			.accept(MediaType.APPLICATION_JSON)
+			.content(objectMapper.writeValueAsString(newOrder))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isBadRequest())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	public void createOrder_givenNoStore_thenStatus400BadRequest() throws Exception {
+
+		// Given
+		Order newOrder = newOrder(null, 2);
+
+		// Then assert
+		mockMvc.perform(post("/orders")
+			.accept(MediaType.APPLICATION_JSON)
+			.content(objectMapper.writeValueAsString(newOrder))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isBadRequest())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	public void retrieveOrder_givenInvalidUUID_thenReturn400BadRequest() throws Exception {
+
+		// Assert
+		mockMvc.perform(get("/orders/" + "00acc00e")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isBadRequest())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	public void retrieveOrder_givenUnknownUUID_thenReturn404NotFound() throws Exception {
+
+		// Assert
+		mockMvc.perform(get("/orders/" + "227a9218-214d-43df-a511-58d7e84d7ed2")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isNotFound())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	public void searchOrders_givenStore_thenPagesInConfirmationOrder() throws Exception {
+
+		// Given
+		String storeId = fixture.createStore("Loja das Orders", "Rua F, 300 - Centro, Aracaju/SE");
+		String first = createOrder(storeId, "Rua C, 1 - Centro, Aracaju/SE");
+		String second = createOrder(storeId, "Rua C, 2 - Centro, Aracaju/SE");
+		String third = createOrder(storeId, "Rua C, 3 - Centro, Aracaju/SE");
+
+		// When
+		MvcResult result = mockMvc.perform(get("/orders")
+			.param("storeId", storeId)
+			.param("limit", "2"))
+			.andExpect(status().isOk())
+			.andExpect(header().exists(OrderController.NEXT_CURSOR_HEADER))
+			.andExpect(jsonPath("$.length()").value(2))
+			.andReturn();
+
+		// Then assert
+		String cursor = result.getResponse().getHeader(OrderController.NEXT_CURSOR_HEADER);
+		mockMvc.perform(get("/orders")
+			.param("storeId", storeId)
+			.param("limit", "2")
+			.param("after", cursor))
+			.andExpect(status().isOk())
+			.andExpect(header().doesNotExist(OrderController.NEXT_CURSOR_HEADER))
+			.andExpect(jsonPath("$.length()").value(1));
+
+		mockMvc.perform(get("/orders")
+			.param("storeId", storeId))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[*].id").value(containsInAnyOrder(first, second, third)));
+	}
+
+	@Test
+	public void searchOrders_givenOrdersWithoutConfirmationDate_thenPagesThroughAll() throws Exception {
+
+		// Given
+		String storeId = fixture.createStore("Loja das Orders", "Rua F, 300 - Centro, Aracaju/SE");
+		String first = createOrder(storeId, "Rua C, 1 - Centro, Aracaju/SE");
+		String second = createOrder(storeId, "Rua C, 2 - Centro, Aracaju/SE");
+		String third = createOrder(storeId, "Rua C, 3 - Centro, Aracaju/SE");
+		// Orders sem data, como as gravadas diretamente no banco.
+		jdbcTemplate.update("UPDATE \"ORDER\" SET confirmation_date = NULL WHERE id IN (?, ?)",
+				UUID.fromString(first), UUID.fromString(second));
+
+		// When
+		List<String> ids = new ArrayList<>();
+		String cursor = null;
+		do {
+			MvcResult result = mockMvc.perform(get("/orders")
+				.param("storeId", storeId)
+				.param("limit", "1")
+				.param("after", cursor))
+				.andExpect(status().isOk())
+				.andReturn();
+			fixture.read(result).forEach(order -> ids.add(order.get("id").asText()));
+			cursor = result.getResponse().getHeader(OrderController.NEXT_CURSOR_HEADER);
+		} while (cursor != null);
+
+		// Then assert
+		assertThat(ids, containsInAnyOrder(first, second, third));
+	}
+
+	@Test
+	public void searchOrders_givenStatusDateAndAddress_thenFiltered() throws Exception {
+
+		// Given
+		String storeId = fixture.createStore("Loja das Orders", "Rua F, 300 - Centro, Aracaju/SE");
+		createOrder(storeId, "Rua D, 10 - Centro, Aracaju/SE");
+		createOrder(storeId, "Avenida E, 20 - Jardins, Aracaju/SE");
+		String yesterday = Instant.now().minus(1, ChronoUnit.DAYS).toString();
+		String tomorrow = Instant.now().plus(1, ChronoUnit.DAYS).toString();
+
+		// Then assert
+		mockMvc.perform(get("/orders")
+			.param("storeId", storeId)
+			.param("status", "PAYMENT_PENDING")
+			.param("from", yesterday)
+			.param("to", tomorrow)
+			.param("address", "avenida"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(1))
+			.andExpect(jsonPath("$[0].address").value("Avenida E, 20 - Jardins, Aracaju/SE"));
+
+		mockMvc.perform(get("/orders")
+			.param("storeId", storeId)
+			.param("status", "COMPLETED"))
+			.andExpect(status().isNotFound())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+
+		mockMvc.perform(get("/orders")
+			.param("storeId", storeId)
+			.param("from", tomorrow))
+			.andExpect(status().isNotFound());
+	}
+
+	@Test
+	public void searchOrders_givenLikeWildcardsInAddress_thenMatchThemLiterally() throws Exception {
+
+		// Given
+		String storeId = fixture.createStore("Loja das Orders", "Rua F, 300 - Centro, Aracaju/SE");
+		createOrder(storeId, "Rua D, 10 - Centro, Aracaju/SE");
+		createOrder(storeId, "Rua 100% Livre, 5 - Centro, Aracaju/SE");
+
+		// Then assert
+		mockMvc.perform(get("/orders")
+			.param("storeId", storeId)
+			.param("address", "100%"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(1))
+			.andExpect(jsonPath("$[0].address").value("Rua 100% Livre, 5 - Centro, Aracaju/SE"));
+
+		mockMvc.perform(get("/orders")
+			.param("storeId", storeId)
+			.param("address", "_"))
+			.andExpect(status().isNotFound());
+	}
+
+	@Test
+	public void searchOrders_givenNoStoreOrStatus_thenStatus400BadRequest() throws Exception {
+
+		// Assert
+		mockMvc.perform(get("/orders")
+			.param("address", "Centro"))
+			.andExpect(status().isBadRequest())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	public void searchOrders_givenInvalidParameters_thenStatus400BadRequest() throws Exception {
+
+		// Assert
+		mockMvc.perform(get("/orders").param("status", "PAGO"))
+			.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/orders").param("storeId", "00acc00e"))
+			.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/orders").param("storeId", STORE_ID).param("from", "20/11/2018"))
+			.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/orders").param("storeId", STORE_ID).param("after", "cursor-invalido"))
+			.andExpect(status().isBadRequest())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	private String createOrder(String storeId, String address) throws Exception {
+		Order order = newOrder(storeId, 1);
+		order.setAddress(address);
+		return fixture.createOrder(order).get("id").asText();
+	}
+
+	private Order newOrder(String storeId, int itemCount) {
+		Order order = new Order();
+		order.setStoreId(storeId == null ? null : UUID.fromString(storeId));
+		order.setAddress("Rua A, 100 - Centro, Aracaju/SE");
+
+		List<OrderItem> items = new ArrayList<>();
+		for (int i = 0; i < itemCount; i++) {
+			OrderItem item = new OrderItem();
+			item.setDescription("Produto " + i);
+			item.setUnitPrice(new BigDecimal("10.50"));
+			item.setQuantity(i + 1);
+			items.add(item);
+		}
+		order.setItems(items);
+		return order;
+	}
+}
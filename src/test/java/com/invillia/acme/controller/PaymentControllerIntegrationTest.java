@@ -0,0 +1,251 @@
+package com.invillia.acme.controller;
+
+import static com.invillia.acme.ApiFixture.INVALID_CARD;
+import static com.invillia.acme.ApiFixture.STORE_ID;
+import static com.invillia.acme.ApiFixture.VALID_CARD;
+import static com.invillia.acme.ApiFixture.item;
+import static com.invillia.acme.ApiFixture.payment;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invillia.acme.ApiFixture;
+import com.invillia.acme.InvilliaApplication;
+import com.invillia.acme.gateway.StubPaymentGateway;
+import com.invillia.acme.model.Payment;
+import com.invillia.acme.service.PaymentProcessor;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, classes = InvilliaApplication.class)
+@AutoConfigureMockMvc
+public class PaymentControllerIntegrationTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PaymentProcessor processor;
+
+	@SpyBean
+	private StubPaymentGateway gateway;
+
+	private ApiFixture fixture;
+
+	@Before
+	public void setUp() {
+		fixture = new ApiFixture(mockMvc, objectMapper);
+	}
+
+	@Test
+	public void createPayment_givenValidCard_thenStatus202AndApproved() throws Exception {
+
+		// Given
+		String orderId = fixture.createOrder(STORE_ID, item("25.00", 2)).get("id").asText();
+
+		// When
+		MvcResult result = mockMvc.perform(post("/orders/" + orderId + "/payments")
+			.content(payment(VALID_CARD))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isAccepted())
+			.andExpect(header().exists("Location"))
+			.andExpect(jsonPath("$.status").value("PENDING"))
+			.andExpect(jsonPath("$.creditCard").doesNotExist())
+			.andReturn();
+
+		// Then assert
+		assertEquals("APPROVED", fixture.awaitPayment(fixture.read(result).get("id").asText()));
+		mockMvc.perform(get("/orders/" + orderId))
+			.andExpect(jsonPath("$.status").value("COMPLETED"));
+	}
+
+	@Test
+	public void createPayment_givenInvalidCard_thenCancelled() throws Exception {
+
+		// Given
+		String orderId = fixture.createOrder(STORE_ID, item("25.00", 2)).get("id").asText();
+
+		// When
+		MvcResult result = mockMvc.perform(post("/orders/" + orderId + "/payments")
+			.content(payment(INVALID_CARD))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isAccepted())
+			.andReturn();
+
+		// Then assert
+		assertEquals("CANCELLED", fixture.awaitPayment(fixture.read(result).get("id").asText()));
+		mockMvc.perform(get("/orders/" + orderId))
+			.andExpect(jsonPath("$.status").value("PAYMENT_PENDING"));
+	}
+
+	@Test
+	public void processPayment_givenGatewayFailureAfterAuthorization_thenResubmittedWithoutSecondCharge() throws Exception {
+
+		// Given
+		// Cartão válido usado somente neste teste: a primeira chamada é autorizada pela operadora, mas a resposta se
+		// perde (timeout), e o Payment continua PENDING.
+		long card = 5555555555554444L;
+		AtomicBoolean failed = new AtomicBoolean();
+		doAnswer(invocation -> {
+			Object result = invocation.callRealMethod();
+			if (failed.compareAndSet(false, true)) {
+				throw new IllegalStateException("Timeout na resposta da operadora");
+			}
+			return result;
+		}).when(gateway).authorize(anyString(), argThat(payment -> isCard(payment, card)));
+		String orderId = fixture.createOrder(STORE_ID, item("25.00", 2)).get("id").asText();
+
+		// When
+		String paymentId = fixture.submitPayment(orderId, card);
+		ApiFixture.await("falha da primeira autorização", failed::get);
+		// Submete novamente, como a recuperação faria, até o Payment ser concluído.
+		ApiFixture.await("conclusão do Payment " + paymentId, () -> {
+			processor.submit(UUID.fromString(paymentId));
+			MvcResult result = mockMvc.perform(get("/payments/" + paymentId)).andReturn();
+			return !"PENDING".equals(fixture.read(result).get("status").asText());
+		});
+
+		// Then assert
+		mockMvc.perform(get("/payments/" + paymentId))
+			.andExpect(jsonPath("$.status").value("APPROVED"));
+		// As duas chamadas usaram a mesma chave (o id do Payment), que a operadora cobra uma única vez.
+		verify(gateway, times(2)).authorize(anyString(), argThat(payment -> isCard(payment, card)));
+		verify(gateway, times(2)).authorize(eq(paymentId), argThat(payment -> isCard(payment, card)));
+	}
+
+	private static boolean isCard(Payment payment, long card) {
+		return payment != null && Long.valueOf(card).equals(payment.getCreditCard());
+	}
+
+	@Test
+	public void createPayment_givenAlreadyPaidOrder_thenStatus409Conflict() throws Exception {
+
+		// Given
+		String orderId = fixture.createOrder(STORE_ID, item("25.00", 2)).get("id").asText();
+		fixture.awaitPayment(fixture.submitPayment(orderId, VALID_CARD));
+
+		// Then assert
+		mockMvc.perform(post("/orders/" + orderId + "/payments")
+			.content(payment(VALID_CARD))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isConflict())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	public void createPayment_givenConcurrentSubmissions_thenOnlyOnePayment() throws Exception {
+
+		// Given
+		String orderId = fixture.createOrder(STORE_ID, item("25.00", 2)).get("id").asText();
+		int submissions = 4;
+		ExecutorService executor = Executors.newFixedThreadPool(submissions);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Integer>> statuses = new ArrayList<>();
+
+		// When
+		try {
+			for (int i = 0; i < submissions; i++) {
+				statuses.add(executor.submit(() -> {
+					start.await();
+					return mockMvc.perform(post("/orders/" + orderId + "/payments")
+						.content(payment(VALID_CARD))
+						.contentType(MediaType.APPLICATION_JSON))
+						.andReturn().getResponse().getStatus();
+				}));
+			}
+			start.countDown();
+		}
+		finally {
+			executor.shutdown();
+		}
+
+		// Then assert
+		int accepted = 0;
+		for (Future<Integer> status : statuses) {
+			int code = status.get(10, TimeUnit.SECONDS);
+			if (code == HttpStatus.ACCEPTED.value()) {
+				accepted++;
+			}
+			else {
+				assertEquals(HttpStatus.CONFLICT.value(), code);
+			}
+		}
+		assertEquals(1, accepted);
+		assertEquals(Integer.valueOf(1), jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM PAYMENT WHERE order_id = ?", Integer.class, UUID.fromString(orderId)));
+	}
+
+	@Test
+	public void createPayment_givenNoCard_thenStatus400BadRequest() throws Exception {
+
+		// Given
+		String orderId = fixture.createOrder(STORE_ID, item("25.00", 2)).get("id").asText();
+
+		// Then assert
+		mockMvc.perform(post("/orders/" + orderId + "/payments")
+			.content("{}")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isBadRequest())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	public void createPayment_givenUnknownOrder_thenStatus404NotFound() throws Exception {
+
+		// Then assert
+		mockMvc.perform(post("/orders/" + "227a9218-214d-43df-a511-58d7e84d7ed2" + "/payments")
+			.content(payment(VALID_CARD))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isNotFound())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	public void retrievePayment_givenInvalidUUID_thenReturn400BadRequest() throws Exception {
+
+		// Assert
+		mockMvc.perform(get("/payments/" + "00acc00e"))
+			.andExpect(status().isBadRequest())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+}
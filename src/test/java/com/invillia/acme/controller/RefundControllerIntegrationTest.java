@@ -0,0 +1,265 @@
+package com.invillia.acme.controller;
+
+import static com.invillia.acme.ApiFixture.STORE_ID;
+import static com.invillia.acme.ApiFixture.item;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invillia.acme.ApiFixture;
+import com.invillia.acme.InvilliaApplication;
+import com.invillia.acme.service.RefundService;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, classes = InvilliaApplication.class)
+@AutoConfigureMockMvc
+public class RefundControllerIntegrationTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private RefundService refundService;
+
+	private ApiFixture fixture;
+
+	@Before
+	public void setUp() {
+		fixture = new ApiFixture(mockMvc, objectMapper);
+	}
+
+	@Test
+	public void refundOrder_givenPaidOrder_thenStatus201AndOrderRefunded() throws Exception {
+
+		// Given
+		JsonNode order = fixture.createPaidOrder(STORE_ID, item("10.00", 1), item("12.50", 2));
+		String orderId = order.get("id").asText();
+
+		// When
+		mockMvc.perform(post("/orders/" + orderId + "/refunds")
+			.content("{\"type\": \"ORDER\"}")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isCreated())
+			.andExpect(header().exists("Location"))
+			.andExpect(jsonPath("$.type").value("ORDER"))
+			.andExpect(jsonPath("$.orderId").value(orderId))
+			.andExpect(jsonPath("$.amount").value(35.0));
+
+		// Then assert
+		mockMvc.perform(get("/orders/" + orderId))
+			.andExpect(jsonPath("$.status").value("REFUNDED"))
+			.andExpect(jsonPath("$.refundableUntil").doesNotExist());
+		mockMvc.perform(post("/orders/" + orderId + "/refunds")
+			.content("{\"type\": \"ORDER\"}")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isConflict())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	public void refundItem_givenPaidOrder_thenOnlyOncePerItem() throws Exception {
+
+		// Given
+		JsonNode order = fixture.createPaidOrder(STORE_ID, item("10.00", 1), item("12.50", 2));
+		String orderId = order.get("id").asText();
+		String itemId = order.get("items").get(0).get("id").asText();
+		String refund = "{\"type\": \"ORDER_ITEM\", \"orderItemId\": \"" + itemId + "\"}";
+
+		// When
+		MvcResult result = mockMvc.perform(post("/orders/" + orderId + "/refunds")
+			.content(refund)
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isCreated())
+			.andExpect(jsonPath("$.orderItemId").value(itemId))
+			.andExpect(jsonPath("$.amount").value(10.0))
+			.andReturn();
+
+		// Then assert
+		String refundId = objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asText();
+		mockMvc.perform(get("/refunds/" + refundId))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.type").value("ORDER_ITEM"));
+		mockMvc.perform(post("/orders/" + orderId + "/refunds")
+			.content(refund)
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isConflict());
+
+		// O estorno da Order inteira considera apenas os itens ainda não estornados.
+		mockMvc.perform(post("/orders/" + orderId + "/refunds")
+			.content("{\"type\": \"ORDER\"}")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isCreated())
+			.andExpect(jsonPath("$.amount").value(25.0));
+	}
+
+	@Test
+	public void refundOrder_givenAllItemsRefunded_thenStatus409Conflict() throws Exception {
+
+		// Given
+		JsonNode order = fixture.createPaidOrder(STORE_ID, item("10.00", 1));
+		String orderId = order.get("id").asText();
+		mockMvc.perform(post("/orders/" + orderId + "/refunds")
+			.content("{\"type\": \"ORDER_ITEM\", \"orderItemId\": \"" + order.get("items").get(0).get("id").asText() + "\"}")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isCreated());
+
+		// Then assert - não há valor restante, então nenhum estorno de valor zero é registrado.
+		mockMvc.perform(post("/orders/" + orderId + "/refunds")
+			.content("{\"type\": \"ORDER\"}")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isConflict())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+		assertEquals(Integer.valueOf(1), jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM REFUND WHERE order_id = ?", Integer.class, UUID.fromString(orderId)));
+	}
+
+	@Test
+	public void refund_givenConcurrentOrderAndItemRefunds_thenEachAmountRefundedOnce() throws Exception {
+
+		// Given
+		JsonNode order = fixture.createPaidOrder(STORE_ID, item("10.00", 1), item("12.50", 2));
+		String orderId = order.get("id").asText();
+		String itemRefund = "{\"type\": \"ORDER_ITEM\", \"orderItemId\": \"" + order.get("items").get(0).get("id").asText() + "\"}";
+		List<String> refunds = Arrays.asList(itemRefund, "{\"type\": \"ORDER\"}", itemRefund, "{\"type\": \"ORDER\"}");
+		ExecutorService executor = Executors.newFixedThreadPool(refunds.size());
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Integer>> statuses = new ArrayList<>();
+
+		// When
+		try {
+			for (String refund : refunds) {
+				statuses.add(executor.submit(() -> {
+					start.await();
+					return mockMvc.perform(post("/orders/" + orderId + "/refunds")
+						.content(refund)
+						.contentType(MediaType.APPLICATION_JSON))
+						.andReturn().getResponse().getStatus();
+				}));
+			}
+			start.countDown();
+		}
+		finally {
+			executor.shutdown();
+		}
+
+		// Then assert - o total estornado nunca passa do valor da Order.
+		int created = 0;
+		for (Future<Integer> status : statuses) {
+			if (status.get(10, TimeUnit.SECONDS) == HttpStatus.CREATED.value()) {
+				created++;
+			}
+		}
+		assertTrue(created >= 1 && created <= 2);
+		assertEquals(0, new BigDecimal("35.00").compareTo(jdbcTemplate.queryForObject(
+				"SELECT SUM(amount) FROM REFUND WHERE order_id = ?", BigDecimal.class, UUID.fromString(orderId))));
+	}
+
+	@Test
+	public void refundOrder_givenUnpaidOrder_thenStatus409Conflict() throws Exception {
+
+		// Given
+		String orderId = fixture.createOrder(STORE_ID, item("10.00", 1), item("12.50", 2)).get("id").asText();
+
+		// Then assert
+		mockMvc.perform(post("/orders/" + orderId + "/refunds")
+			.content("{\"type\": \"ORDER\"}")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isConflict())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	public void refundOrder_givenExpiredWindow_thenExpiredAndStatus409Conflict() throws Exception {
+
+		// Given
+		String orderId = fixture.createPaidOrder(STORE_ID, item("10.00", 1), item("12.50", 2)).get("id").asText();
+		jdbcTemplate.update("UPDATE \"ORDER\" SET refundable_until = DATEADD('DAY', -1, CURRENT_TIMESTAMP()) WHERE id = ?",
+				UUID.fromString(orderId));
+
+		// When
+		assertTrue(refundService.expireRefunds() >= 1);
+
+		// Then assert
+		assertEquals(Integer.valueOf(0), jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM \"ORDER\" WHERE id = ? AND refundable_until IS NOT NULL", Integer.class, UUID.fromString(orderId)));
+		mockMvc.perform(post("/orders/" + orderId + "/refunds")
+			.content("{\"type\": \"ORDER\"}")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isConflict());
+	}
+
+	@Test
+	public void refund_givenUnknownOrderOrItem_thenStatus404NotFound() throws Exception {
+
+		// Given
+		String orderId = fixture.createPaidOrder(STORE_ID, item("10.00", 1), item("12.50", 2)).get("id").asText();
+
+		// Then assert
+		mockMvc.perform(post("/orders/" + "227a9218-214d-43df-a511-58d7e84d7ed2" + "/refunds")
+			.content("{\"type\": \"ORDER\"}")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isNotFound());
+		mockMvc.perform(post("/orders/" + orderId + "/refunds")
+			.content("{\"type\": \"ORDER_ITEM\", \"orderItemId\": \"227a9218-214d-43df-a511-58d7e84d7ed2\"}")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isNotFound())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	public void refund_givenInvalidRequest_thenStatus400BadRequest() throws Exception {
+
+		// Then assert
+		mockMvc.perform(post("/orders/" + "227a9218-214d-43df-a511-58d7e84d7ed2" + "/refunds")
+			.content("{}")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isBadRequest());
+		mockMvc.perform(post("/orders/" + "227a9218-214d-43df-a511-58d7e84d7ed2" + "/refunds")
+			.content("{\"type\": \"ORDER_ITEM\"}")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isBadRequest());
+		mockMvc.perform(post("/orders/" + "00acc00e" + "/refunds")
+			.content("{\"type\": \"ORDER\"}")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isBadRequest())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+}
@@ -0,0 +1,217 @@
+package com.invillia.acme.controller;
+
+import static com.invillia.acme.ApiFixture.item;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invillia.acme.ApiFixture;
+import com.invillia.acme.InvilliaApplication;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, classes = InvilliaApplication.class)
+@AutoConfigureMockMvc
+public class SalesControllerIntegrationTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private ApiFixture fixture;
+
+	@Before
+	public void setUp() {
+		fixture = new ApiFixture(mockMvc, objectMapper);
+	}
+
+	@Test
+	public void retrieveStoreSales_givenOrdersPaymentsAndRefunds_thenIncrementalTotals() throws Exception {
+
+		// Given
+		String storeId = fixture.createStore("Loja Vendas", "Rua V, 10 - Centro, Natal/RN");
+		fixture.createOrder(storeId, item("10.00", 1), item("12.50", 2));
+		JsonNode paid = fixture.createPaidOrder(storeId, item("10.00", 1), item("12.50", 2));
+		// Os totais são atualizados logo após o commit do PaymentProcessor.
+		awaitOrders(storeId, "COMPLETED", 1);
+		String itemId = paid.get("items").get(0).get("id").asText();
+
+		// When
+		mockMvc.perform(post("/orders/" + paid.get("id").asText() + "/refunds")
+			.content("{\"type\": \"ORDER_ITEM\", \"orderItemId\": \"" + itemId + "\"}")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isCreated());
+
+		// Then assert
+		mockMvc.perform(get("/stores/" + storeId + "/sales"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.storeId").value(storeId))
+			.andExpect(jsonPath("$.revenue").value(70.0))
+			.andExpect(jsonPath("$.refunded").value(10.0))
+			.andExpect(jsonPath("$.orders.PAYMENT_PENDING").value(1))
+			.andExpect(jsonPath("$.orders.COMPLETED").value(1))
+			.andExpect(jsonPath("$.orders.REFUNDED").value(0));
+
+		// O estorno da Order inteira move a Order para REFUNDED e soma apenas os itens restantes.
+		mockMvc.perform(post("/orders/" + paid.get("id").asText() + "/refunds")
+			.content("{\"type\": \"ORDER\"}")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isCreated());
+		mockMvc.perform(get("/stores/" + storeId + "/sales"))
+			.andExpect(jsonPath("$.refunded").value(35.0))
+			.andExpect(jsonPath("$.orders.COMPLETED").value(0))
+			.andExpect(jsonPath("$.orders.REFUNDED").value(1));
+	}
+
+	@Test
+	public void rebuildSales_givenChangesOutsideTheApplication_thenTotalsRecalculated() throws Exception {
+
+		// Given
+		String storeId = fixture.createStore("Loja Vendas", "Rua V, 10 - Centro, Natal/RN");
+		String orderId = fixture.createOrder(storeId, item("10.00", 1), item("12.50", 2)).get("id").asText();
+		jdbcTemplate.update("UPDATE ORDER_ITEM SET quantity = quantity + 1 WHERE order_id = ?", UUID.fromString(orderId));
+		mockMvc.perform(get("/stores/" + storeId + "/sales"))
+			.andExpect(jsonPath("$.revenue").value(35.0));
+
+		// When
+		mockMvc.perform(post("/sales/rebuild"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.stores").isNumber());
+
+		// Then assert
+		mockMvc.perform(get("/stores/" + storeId + "/sales"))
+			.andExpect(jsonPath("$.revenue").value(57.5))
+			.andExpect(jsonPath("$.orders.PAYMENT_PENDING").value(1));
+	}
+
+	@Test
+	public void retrieveStoreSales_givenUnitPriceWithMoreDecimalsThanTheColumn_thenTotalsOfPersistedAmounts() throws Exception {
+
+		// Given
+		String storeId = fixture.createStore("Loja Vendas", "Rua V, 10 - Centro, Natal/RN");
+
+		// When
+		// Gravados como 0.13 e 10.01 (DECIMAL(12,2)).
+		fixture.createOrder(storeId, item("0.125", 3), item("10.005", 1));
+
+		// Then assert
+		mockMvc.perform(get("/stores/" + storeId + "/sales"))
+			.andExpect(jsonPath("$.revenue").value(10.4));
+		mockMvc.perform(post("/sales/rebuild"))
+			.andExpect(status().isOk());
+		mockMvc.perform(get("/stores/" + storeId + "/sales"))
+			.andExpect(jsonPath("$.revenue").value(10.4));
+	}
+
+	@Test
+	public void rebuildSales_givenConcurrentOrders_thenEachOrderCountedOnce() throws Exception {
+
+		// Given
+		String storeId = fixture.createStore("Loja Vendas", "Rua V, 10 - Centro, Natal/RN");
+		int threads = 4;
+		int ordersPerThread = 25;
+		ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicBoolean creating = new AtomicBoolean(true);
+
+		// When
+		List<Future<?>> futures = new ArrayList<>();
+		try {
+			for (int i = 0; i < threads; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int j = 0; j < ordersPerThread; j++) {
+						fixture.createOrder(storeId, item("1.00", 1));
+					}
+					return null;
+				}));
+			}
+			Future<?> rebuilds = executor.submit(() -> {
+				start.await();
+				while (creating.get()) {
+					mockMvc.perform(post("/sales/rebuild")).andExpect(status().isOk());
+				}
+				return null;
+			});
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+			creating.set(false);
+			rebuilds.get(30, TimeUnit.SECONDS);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		// Then assert
+		int total = threads * ordersPerThread;
+		mockMvc.perform(get("/stores/" + storeId + "/sales"))
+			.andExpect(jsonPath("$.revenue").value((double) total))
+			.andExpect(jsonPath("$.orders.PAYMENT_PENDING").value(total));
+	}
+
+	@Test
+	public void retrieveStoreSales_givenStoreWithoutOrders_thenZeroTotals() throws Exception {
+
+		// Given
+		String storeId = fixture.createStore("Loja Vendas", "Rua V, 10 - Centro, Natal/RN");
+
+		// Then assert
+		mockMvc.perform(get("/stores/" + storeId + "/sales"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.revenue").value(0.0))
+			.andExpect(jsonPath("$.refunded").value(0.0))
+			.andExpect(jsonPath("$.orders.PAYMENT_PENDING").value(0));
+	}
+
+	@Test
+	public void retrieveStoreSales_givenInvalidOrUnknownStore_thenApiError() throws Exception {
+
+		// Then assert
+		mockMvc.perform(get("/stores/" + "00acc00e" + "/sales"))
+			.andExpect(status().isBadRequest())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+		mockMvc.perform(get("/stores/" + "227a9218-214d-43df-a511-58d7e84d7ed2" + "/sales"))
+			.andExpect(status().isNotFound())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	private void awaitOrders(String storeId, String status, long count) throws Exception {
+		ApiFixture.await(String.format("%d Orders %s na Store %s", count, status, storeId), () -> {
+			MvcResult result = mockMvc.perform(get("/stores/" + storeId + "/sales")).andReturn();
+			return fixture.read(result).get("orders").get(status).asLong() == count;
+		});
+	}
+
+}
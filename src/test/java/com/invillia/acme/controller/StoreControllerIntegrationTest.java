@@ -1,22 +1,40 @@
 package com.invillia.acme.controller;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
 import com.invillia.acme.InvilliaApplication;
+import com.invillia.acme.configuration.CacheConfig;
+import com.invillia.acme.dto.StoreView;
 import com.invillia.acme.model.Store;
 
 @RunWith(SpringRunner.class)
@@ -29,6 +47,9 @@ public class StoreControllerIntegrationTest {
 	
 	@Autowired
 	private ObjectMapper objectMapper;
+	
+	@Autowired
+	private CacheManager cacheManager;
 
 	@Test
 	public void createStore_givenValidArguments_thenStatus201Created() throws Exception {
@@ -167,6 +188,22 @@ public class StoreControllerIntegrationTest {
 			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
 	}
 	
+	@Test
+	public void retrieveStore_givenMalformedCanonicalUUID_thenReturn400BadRequest() throws Exception {
+
+		// Then assert
+		for (String uuid : new String[] { "00acc00e-2745-4ffe-b2be-2c461278ba3g", "00acc00e+2745-4ffe-b2be-2c461278ba3e",
+				"00acc00e-2745-4ffe-b2be-2c461278ba3e0", "00acc00e-2745-4ffé-b2be-2c461278ba3e" }) {
+			mockMvc.perform(get("/stores/" + uuid))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.message").value(String.format("O ID [%s] não é válido.", uuid)));
+		}
+		// Os dígitos hexadecimais são aceitos em maiúsculas e minúsculas.
+		mockMvc.perform(get("/stores/" + "00ACC00E-2745-4FFE-B2BE-2C461278BA3E"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.id").value("00acc00e-2745-4ffe-b2be-2c461278ba3e"));
+	}
+
 	@Test
 	public void retrieveStore_givenUnknownUUID_thenReturn404NotFound() throws Exception {
 		
@@ -298,4 +335,502 @@ public class StoreControllerIntegrationTest {
 			.andExpect(status().isNotFound())
 			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
 	}
+
+	@Test
+	public void retrieveStore_givenShortPartialName_thenReturn200Ok() throws Exception {
+		
+		// Given
+		String name = "ju";
+		
+		// Assert
+		mockMvc.perform(get("/stores/" + "?name=" + name)
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[?(@.name == 'Aracaju')]").exists());
+	}
+
+	@Test
+	public void retrieveStore_givenUpperCasePartialName_thenReturn200Ok() throws Exception {
+		
+		// Given
+		String name = "ACAJ";
+		
+		// Assert
+		mockMvc.perform(get("/stores/" + "?name=" + name)
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[?(@.name == 'Aracaju')]").exists());
+	}
+
+	@Test
+	public void retrieveStore_givenPartialNameOfCreatedStore_thenReturn200Ok() throws Exception {
+		
+		// Given
+		Store newStore = new Store("Florianópolis", "Lagoa da Conceição, Florianópolis/SC");
+		mockMvc.perform(post("/stores/")
+			.content(objectMapper.writeValueAsString(newStore))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isCreated());
+		
+		// Assert
+		mockMvc.perform(get("/stores/" + "?address=" + "conceição")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[0].name").value("Florianópolis"));
+	}
+
+	@Test
+	public void retrieveStore_givenLikeWildcardsInTerm_thenMatchThemLiterally() throws Exception {
+		
+		// Given
+		mockMvc.perform(post("/stores/")
+			.content(objectMapper.writeValueAsString(new Store("Desconto 50%_off", "Centro, Curinga/CG")))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isCreated());
+		
+		// Assert: com e sem trigramas, '%' e '_' são comparados como texto
+		mockMvc.perform(get("/stores/").param("name", "0%_o")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(1))
+			.andExpect(jsonPath("$[0].name").value("Desconto 50%_off"));
+		mockMvc.perform(get("/stores/").param("name", "%_")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[?(@.name == 'Desconto 50%%_off')]").exists())
+			.andExpect(jsonPath("$[?(@.name == 'Aracaju')]").doesNotExist());
+		mockMvc.perform(get("/stores/").param("name", "a%u")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isNotFound());
+		mockMvc.perform(get("/stores/").param("name", "_")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[?(@.name == 'Desconto 50%%_off')]").exists())
+			.andExpect(jsonPath("$[?(@.name == 'Aracaju')]").doesNotExist());
+	}
+
+	@Test
+	public void retrieveStore_givenLimitSmallerThanResults_thenReturnPagesWithCursor() throws Exception {
+		
+		// Given
+		for (String name : new String[] { "Keyset C", "Keyset A", "Keyset B" }) {
+			mockMvc.perform(post("/stores/")
+				.content(objectMapper.writeValueAsString(new Store(name, "Centro, Keyset/KS")))
+				.contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isCreated());
+		}
+		
+		// Assert
+		MvcResult firstPage = mockMvc.perform(get("/stores/").param("name", "keyset").param("limit", "2")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(2))
+			.andExpect(jsonPath("$[0].name").value("Keyset A"))
+			.andExpect(jsonPath("$[1].name").value("Keyset B"))
+			.andExpect(header().exists("X-Next-Cursor"))
+			.andReturn();
+		
+		String cursor = firstPage.getResponse().getHeader("X-Next-Cursor");
+		mockMvc.perform(get("/stores/").param("name", "keyset").param("limit", "2").param("after", cursor)
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(1))
+			.andExpect(jsonPath("$[0].name").value("Keyset C"))
+			.andExpect(header().doesNotExist("X-Next-Cursor"));
+	}
+
+	@Test
+	public void retrieveStore_givenCursorOfNameWithLineBreak_thenReturnNextPage() throws Exception {
+		
+		// Given
+		for (String name : new String[] { "Quebra\nA", "Quebra\nB" }) {
+			mockMvc.perform(post("/stores/")
+				.content(objectMapper.writeValueAsString(new Store(name, "Centro, Quebra/QB")))
+				.contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isCreated());
+		}
+		
+		// Assert
+		MvcResult firstPage = mockMvc.perform(get("/stores/").param("name", "quebra").param("limit", "1")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[0].name").value("Quebra\nA"))
+			.andExpect(header().exists("X-Next-Cursor"))
+			.andReturn();
+		
+		String cursor = firstPage.getResponse().getHeader("X-Next-Cursor");
+		mockMvc.perform(get("/stores/").param("name", "quebra").param("limit", "1").param("after", cursor)
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[0].name").value("Quebra\nB"));
+	}
+
+	@Test
+	public void retrieveStore_givenInvalidCursor_thenReturn400BadRequest() throws Exception {
+		
+		// Assert
+		mockMvc.perform(get("/stores/").param("name", "Aracaju").param("after", "zzzzzzx6")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isBadRequest())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	public void retrieveStore_givenInvalidLimit_thenReturn400BadRequest() throws Exception {
+		
+		// Assert
+		mockMvc.perform(get("/stores/").param("name", "Aracaju").param("limit", "0")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isBadRequest())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	public void retrieveStore_givenRepeatedUUID_thenServeFromCache() throws Exception {
+		
+		// Given
+		String uuid = "00acc00e-2745-4ffe-b2be-2c461278ba3e";
+		mockMvc.perform(get("/stores/" + uuid)).andExpect(status().isOk());
+		long hits = storesCache().stats().hitCount();
+		
+		// Assert
+		mockMvc.perform(get("/stores/" + uuid))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.name").value("Aracaju"));
+		assertEquals(hits + 1, storesCache().stats().hitCount());
+		
+		// O cache guarda a projeção imutável, e não a entidade.
+		assertTrue(storesCache().getIfPresent(UUID.fromString(uuid)) instanceof StoreView);
+	}
+
+	@Test
+	public void retrieveStore_givenCachedStore_thenServePreSerializedJson() throws Exception {
+
+		// Given
+		String uuid = createStore("Palmas", "Centro, Palmas/TO");
+		MvcResult first = mockMvc.perform(get("/stores/" + uuid)).andExpect(status().isOk()).andReturn();
+		StoreView cached = (StoreView) storesCache().getIfPresent(UUID.fromString(uuid));
+
+		// Then assert
+		byte[] json = cached.toJson(objectMapper);
+		assertTrue(json == cached.toJson(objectMapper));
+		assertEquals(new String(json, StandardCharsets.UTF_8), first.getResponse().getContentAsString());
+		mockMvc.perform(get("/stores/" + uuid))
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+			.andExpect(content().bytes(json));
+
+		// A alteração remove a Store do cache, e com ela o JSON antigo.
+		mockMvc.perform(put("/stores/" + uuid)
+			.content("{\"address\": \"Plano Diretor Sul, Palmas/TO\"}")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.address").value("Plano Diretor Sul, Palmas/TO"));
+		mockMvc.perform(get("/stores/" + uuid))
+			.andExpect(jsonPath("$.name").value("Palmas"))
+			.andExpect(jsonPath("$.address").value("Plano Diretor Sul, Palmas/TO"))
+			.andExpect(jsonPath("$.version").doesNotExist());
+	}
+
+	@Test
+	public void updateStore_givenCachedStore_thenEvictCacheEntry() throws Exception {
+		
+		// Given
+		MvcResult created = mockMvc.perform(post("/stores/")
+			.content(objectMapper.writeValueAsString(new Store("Cuiabá", "Centro, Cuiabá/MT")))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isCreated())
+			.andReturn();
+		String uuid = objectMapper.readValue(created.getResponse().getContentAsString(), Store.class).getId().toString();
+		mockMvc.perform(get("/stores/" + uuid)).andExpect(jsonPath("$.name").value("Cuiabá"));
+		
+		// When
+		mockMvc.perform(put("/stores/" + uuid)
+			.content(objectMapper.writeValueAsString(new Store("Várzea Grande", null)))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk());
+		
+		// Then assert
+		mockMvc.perform(get("/stores/" + uuid))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.name").value("Várzea Grande"))
+			.andExpect(jsonPath("$.address").value("Centro, Cuiabá/MT"));
+	}
+
+	@Test
+	public void retrieveStoreById_givenCurrentIfNoneMatch_thenStatus304NotModified() throws Exception {
+		
+		// Given
+		String uuid = createStore("Rio Branco", "Centro, Rio Branco/AC");
+		mockMvc.perform(get("/stores/" + uuid))
+			.andExpect(status().isOk())
+			.andExpect(header().string("Cache-Control", "max-age=30, public"));
+		
+		// Then assert
+		mockMvc.perform(get("/stores/" + uuid).header("If-None-Match", "\"0\""))
+			.andExpect(status().isNotModified())
+			.andExpect(header().string("ETag", "\"0\""))
+			.andExpect(header().string("Cache-Control", "max-age=30, public"))
+			.andExpect(content().string(""));
+		
+		// Após a alteração, o ETag antigo não corresponde mais.
+		mockMvc.perform(put("/stores/" + uuid)
+			.content(objectMapper.writeValueAsString(new Store("Rio Branco I", null)))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk());
+		mockMvc.perform(get("/stores/" + uuid).header("If-None-Match", "\"0\""))
+			.andExpect(status().isOk())
+			.andExpect(header().string("ETag", "\"1\""))
+			.andExpect(jsonPath("$.name").value("Rio Branco I"));
+	}
+
+	@Test
+	public void retrieveStoreByParameters_givenCurrentIfNoneMatch_thenStatus304NotModified() throws Exception {
+		
+		// Given
+		String uuid = createStore("Porto Velho", "Centro, Porto Velho/RO");
+		String etag = mockMvc.perform(get("/stores").param("name", "porto velho"))
+			.andExpect(status().isOk())
+			.andExpect(header().string("Cache-Control", "max-age=30, public"))
+			.andReturn().getResponse().getHeader("ETag");
+		assertTrue(etag.startsWith("W/"));
+		
+		// Then assert
+		mockMvc.perform(get("/stores").param("name", "porto velho").header("If-None-Match", etag))
+			.andExpect(status().isNotModified())
+			.andExpect(content().string(""));
+		
+		mockMvc.perform(put("/stores/" + uuid)
+			.content(objectMapper.writeValueAsString(new Store(null, "Olaria, Porto Velho/RO")))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk());
+		mockMvc.perform(get("/stores").param("name", "porto velho").header("If-None-Match", etag))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[0].address").value("Olaria, Porto Velho/RO"));
+	}
+
+	@Test
+	public void updateStore_givenMatchingIfMatch_thenStatus200AndNewETag() throws Exception {
+		
+		// Given
+		String uuid = createStore("Palmas", "Centro, Palmas/TO");
+		String etag = mockMvc.perform(get("/stores/" + uuid))
+			.andExpect(header().string("ETag", "\"0\""))
+			.andReturn().getResponse().getHeader("ETag");
+		
+		// When
+		mockMvc.perform(put("/stores/" + uuid)
+			.header("If-Match", etag)
+			.content(objectMapper.writeValueAsString(new Store(null, "Plano Diretor Sul, Palmas/TO")))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(header().string("ETag", "\"1\""))
+			.andExpect(jsonPath("$.name").value("Palmas"))
+			.andExpect(jsonPath("$.address").value("Plano Diretor Sul, Palmas/TO"));
+		
+		// Then assert
+		mockMvc.perform(get("/stores/" + uuid))
+			.andExpect(header().string("ETag", "\"1\""));
+	}
+
+	@Test
+	public void updateStore_givenStaleIfMatch_thenStatus412PreconditionFailed() throws Exception {
+		
+		// Given
+		String uuid = createStore("Boa Vista", "Centro, Boa Vista/RR");
+		mockMvc.perform(put("/stores/" + uuid)
+			.header("If-Match", "\"0\"")
+			.content(objectMapper.writeValueAsString(new Store("Boa Vista I", null)))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk());
+		
+		// Then assert
+		mockMvc.perform(put("/stores/" + uuid)
+			.header("If-Match", "\"0\"")
+			.content(objectMapper.writeValueAsString(new Store("Boa Vista II", null)))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isPreconditionFailed())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+		mockMvc.perform(get("/stores/" + uuid))
+			.andExpect(jsonPath("$.name").value("Boa Vista I"));
+	}
+
+	@Test
+	public void updateStore_givenWeakIfMatch_thenStatus412PreconditionFailed() throws Exception {
+		
+		// Given
+		String uuid = createStore("Boa Vista", "Centro, Boa Vista/RR");
+		
+		// Then assert
+		// O If-Match usa a comparação forte: o ETag fraco da versão atual não corresponde.
+		mockMvc.perform(put("/stores/" + uuid)
+			.header("If-Match", "W/\"0\"")
+			.content(objectMapper.writeValueAsString(new Store("Boa Vista I", null)))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isPreconditionFailed())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+		mockMvc.perform(get("/stores/" + uuid))
+			.andExpect(jsonPath("$.name").value("Boa Vista"))
+			.andExpect(header().string("ETag", "\"0\""));
+	}
+
+	@Test
+	public void updateStore_givenPreferReturnMinimal_thenStatus204NoContent() throws Exception {
+		
+		// Given
+		String uuid = createStore("Macapá", "Centro, Macapá/AP");
+		
+		// Then assert
+		mockMvc.perform(put("/stores/" + uuid)
+			.header("If-Match", "\"0\"")
+			.header("Prefer", "return=minimal")
+			.content(objectMapper.writeValueAsString(new Store("Santana", null)))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isNoContent())
+			.andExpect(header().string("ETag", "\"1\""));
+		mockMvc.perform(get("/stores/" + uuid))
+			.andExpect(jsonPath("$.name").value("Santana"));
+	}
+
+	@Test
+	public void updateStore_givenUnknownUUID_thenStatus404NotFound() throws Exception {
+		
+		// Then assert
+		mockMvc.perform(put("/stores/" + "227a9218-214d-43df-a511-58d7e84d7ed2")
+			.header("If-Match", "\"0\"")
+			.content(objectMapper.writeValueAsString(new Store("Nenhuma", null)))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isNotFound())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	public void createStores_givenValidArray_thenStatus201Created() throws Exception {
+		
+		// Given
+		List<Store> newStores = Arrays.asList(new Store("Natal", "Ponta Negra, Natal/RN"),
+				new Store("Recife", "Boa Viagem, Recife/PE"));
+		
+		// Then assert
+		mockMvc.perform(post("/stores/batch")
+			.content(objectMapper.writeValueAsString(newStores))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isCreated())
+			.andExpect(jsonPath("$.length()").value(2))
+			.andExpect(jsonPath("$[0].status").value("CREATED"))
+			.andExpect(jsonPath("$[1].id").exists());
+		
+		mockMvc.perform(get("/stores/").param("name", "Recife"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[0].address").value("Boa Viagem, Recife/PE"));
+	}
+	
+	@Test
+	public void createStores_givenInvalidItem_thenStatus207WithItemError() throws Exception {
+		
+		// Given
+		List<Store> newStores = Arrays.asList(new Store("Maceió", "Pajuçara, Maceió/AL"), new Store("Maceió", null));
+		
+		// Then assert
+		mockMvc.perform(post("/stores/batch")
+			.content(objectMapper.writeValueAsString(newStores))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isMultiStatus())
+			.andExpect(jsonPath("$[0].status").value("CREATED"))
+			.andExpect(jsonPath("$[1].status").value("BAD_REQUEST"))
+			.andExpect(jsonPath("$[1].id").doesNotExist());
+	}
+	
+	@Test
+	public void createStores_givenNdjsonStream_thenStatus201Created() throws Exception {
+		
+		// Given
+		String ndjson = objectMapper.writeValueAsString(new Store("Palmas", "Centro, Palmas/TO")) + "\n"
+				+ objectMapper.writeValueAsString(new Store("Goiânia", "Setor Bueno, Goiânia/GO")) + "\n";
+		
+		// Then assert
+		mockMvc.perform(post("/stores/batch")
+			.content(ndjson)
+			.contentType("application/x-ndjson"))
+			.andExpect(status().isCreated())
+			.andExpect(jsonPath("$.length()").value(2));
+	}
+	
+	@Test
+	public void createStores_givenEmptyArray_thenStatus400BadRequest() throws Exception {
+		
+		// Then assert
+		mockMvc.perform(post("/stores/batch")
+			.content("[]")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isBadRequest())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	public void exportStores_givenNdjsonFormat_thenStreamOneStorePerLine() throws Exception {
+		
+		// Given
+		MvcResult result = mockMvc.perform(get("/stores/export"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		
+		// Then assert
+		String body = mockMvc.perform(asyncDispatch(result))
+			.andExpect(status().isOk())
+			.andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+			.andReturn().getResponse().getContentAsString();
+		
+		String[] lines = body.split("\n");
+		assertTrue(lines.length >= 2);
+		for (String line : lines) {
+			assertNotNull(objectMapper.readValue(line, Store.class).getId());
+		}
+		assertTrue(body.contains("\"name\":\"Aracaju\""));
+	}
+	
+	@Test
+	public void exportStores_givenCsvFormat_thenStreamHeaderAndRows() throws Exception {
+		
+		// Given
+		MvcResult result = mockMvc.perform(get("/stores/export").param("format", "csv"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		
+		// Then assert
+		String body = mockMvc.perform(asyncDispatch(result))
+			.andExpect(status().isOk())
+			.andExpect(content().contentTypeCompatibleWith("text/csv"))
+			.andReturn().getResponse().getContentAsString();
+		
+		assertTrue(body.startsWith("id,name,address\n"));
+		assertTrue(body.contains(",\"Aracaju\",\"Centro, Aracaju/SE\""));
+	}
+	
+	@Test
+	public void exportStores_givenUnknownFormat_thenStatus400BadRequest() throws Exception {
+		
+		// Given
+		MvcResult result = mockMvc.perform(get("/stores/export").param("format", "xml"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		
+		// Then assert
+		mockMvc.perform(asyncDispatch(result))
+			.andExpect(status().isBadRequest())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	private String createStore(String name, String address) throws Exception {
+		MvcResult created = mockMvc.perform(post("/stores/")
+			.content(objectMapper.writeValueAsString(new Store(name, address)))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isCreated())
+			.andExpect(header().string("ETag", "\"0\""))
+			.andReturn();
+		return objectMapper.readValue(created.getResponse().getContentAsString(), Store.class).getId().toString();
+	}
+
+	private Cache<Object, Object> storesCache() {
+		return ((CaffeineCache) cacheManager.getCache(CacheConfig.STORES_CACHE)).getNativeCache();
+	}
 }
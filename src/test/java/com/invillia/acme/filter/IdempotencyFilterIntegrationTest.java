@@ -0,0 +1,220 @@
+package com.invillia.acme.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invillia.acme.InvilliaApplication;
+import com.invillia.acme.model.Store;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, classes = InvilliaApplication.class)
+@AutoConfigureMockMvc
+public class IdempotencyFilterIntegrationTest {
+
+	// Header que identifica o cliente nos testes (acme.client-header).
+	private static final String CLIENT_HEADER = "X-Client-Id";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	public void createStore_givenRepeatedIdempotencyKey_thenReplayOriginalResponse() throws Exception {
+
+		// Given
+		String key = UUID.randomUUID().toString();
+		String jsonStore = objectMapper.writeValueAsString(new Store("Teresina", "Centro, Teresina/PI"));
+
+		// When
+		MvcResult first = mockMvc.perform(post("/stores/")
+			.header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+			.content(jsonStore)
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isCreated())
+			.andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+			.andReturn();
+
+		MvcResult retry = mockMvc.perform(post("/stores/")
+			.header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+			.content(jsonStore)
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isCreated())
+			.andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+			.andReturn();
+
+		// Then assert
+		assertEquals(first.getResponse().getContentAsString(), retry.getResponse().getContentAsString());
+		assertEquals(first.getResponse().getHeader("Location"), retry.getResponse().getHeader("Location"));
+	}
+
+	@Test
+	public void createStore_givenDifferentIdempotencyKeys_thenCreateTwoStores() throws Exception {
+
+		// Given
+		String jsonStore = objectMapper.writeValueAsString(new Store("Teresina", "Centro, Teresina/PI"));
+
+		// When
+		MvcResult first = mockMvc.perform(post("/stores/")
+			.header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, UUID.randomUUID().toString())
+			.content(jsonStore)
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isCreated())
+			.andReturn();
+
+		MvcResult second = mockMvc.perform(post("/stores/")
+			.header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, UUID.randomUUID().toString())
+			.content(jsonStore)
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isCreated())
+			.andReturn();
+
+		// Then assert
+		assertNotEquals(first.getResponse().getContentAsString(), second.getResponse().getContentAsString());
+	}
+
+	@Test
+	public void createStore_givenSameKeyFromAnotherClient_thenProcessedSeparately() throws Exception {
+
+		// Given
+		String key = UUID.randomUUID().toString();
+		String jsonStore = objectMapper.writeValueAsString(new Store("Teresina", "Centro, Teresina/PI"));
+
+		// When
+		MvcResult first = mockMvc.perform(post("/stores/")
+			.header(CLIENT_HEADER, "cliente-a")
+			.header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+			.content(jsonStore)
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isCreated())
+			.andReturn();
+
+		MvcResult other = mockMvc.perform(post("/stores/")
+			.header(CLIENT_HEADER, "cliente-b")
+			.header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+			.content(jsonStore)
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isCreated())
+			.andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+			.andReturn();
+
+		// Then assert
+		assertNotEquals(first.getResponse().getHeader("Location"), other.getResponse().getHeader("Location"));
+	}
+
+	@Test
+	public void createStore_givenSameKeyWithAnotherBody_thenStatus422() throws Exception {
+
+		// Given
+		String key = UUID.randomUUID().toString();
+		mockMvc.perform(post("/stores/")
+			.header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+			.content(objectMapper.writeValueAsString(new Store("Teresina", "Centro, Teresina/PI")))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isCreated());
+
+		// Then assert
+		mockMvc.perform(post("/stores/")
+			.header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+			.content(objectMapper.writeValueAsString(new Store("Parnaíba", "Centro, Parnaíba/PI")))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isUnprocessableEntity())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+			.andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+	}
+
+	@Test
+	public void createStore_givenFailedRequest_thenKeyCanBeRetried() throws Exception {
+
+		// Given
+		String key = UUID.randomUUID().toString();
+
+		// When
+		mockMvc.perform(post("/stores/")
+			.header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+			.content(objectMapper.writeValueAsString(new Store("Teresina", null)))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isBadRequest());
+
+		// Then assert
+		mockMvc.perform(post("/stores/")
+			.header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+			.content(objectMapper.writeValueAsString(new Store("Teresina", "Centro, Teresina/PI")))
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isCreated())
+			.andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+	}
+
+	@Test
+	public void createPayment_givenRepeatedIdempotencyKey_thenReplayOriginalResponse() throws Exception {
+
+		// Given
+		String order = "{\"storeId\": \"00acc00e-2745-4ffe-b2be-2c461278ba3e\", \"address\": \"Rua C, 300\", "
+				+ "\"items\": [{\"description\": \"Produto\", \"unitPrice\": 10.00, \"quantity\": 1}]}";
+		MvcResult created = mockMvc.perform(post("/orders")
+			.content(order)
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isCreated())
+			.andReturn();
+		String orderId = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asText();
+		String key = UUID.randomUUID().toString();
+
+		// When
+		MvcResult first = mockMvc.perform(post("/orders/" + orderId + "/payments")
+			.header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+			.content("{\"creditCard\": 4111111111111111}")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isAccepted())
+			.andReturn();
+
+		// Then assert - sem a chave, a repetição seria recusada com 409 por já existir um Payment.
+		MvcResult retry = mockMvc.perform(post("/orders/" + orderId + "/payments")
+			.header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+			.content("{\"creditCard\": 4111111111111111}")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isAccepted())
+			.andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+			.andReturn();
+
+		assertEquals(first.getResponse().getContentAsString(), retry.getResponse().getContentAsString());
+	}
+	@Test
+	public void keyStore_givenResponsesOverMaxBytes_thenBoundedByBytes() throws Exception {
+
+		// Given
+		long maxBytes = 50_000;
+		IdempotencyKeyStore store = new IdempotencyKeyStore(maxBytes, 60);
+
+		// When
+		// 200 respostas de 10 KB: cerca de 2 MB, bem acima do limite.
+		for (int i = 0; i < 200; i++) {
+			String key = "client\n/stores/batch\n" + i;
+			store.reserve(key);
+			store.complete(key, new IdempotentResponse(201, MediaType.APPLICATION_JSON_VALUE, null, new byte[10_000], new byte[32]));
+		}
+
+		// Then assert
+		long size = store.weightedSize();
+		assertTrue("Tamanho armazenado: " + size, size > 0 && size <= maxBytes);
+	}
+
+}
@@ -0,0 +1,206 @@
+package com.invillia.acme.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.sql.DataSource;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invillia.acme.InvilliaApplication;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Testa o LoadSheddingFilter com o limite por cliente e o limite de requisições simultâneas ligados.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, classes = InvilliaApplication.class,
+		properties = { "acme.rate-limit.requests-per-second=0.1", "acme.rate-limit.burst=3",
+				"acme.concurrency-limit.enabled=true", "acme.concurrency-limit.initial=4", "acme.concurrency-limit.min=4",
+				"acme.concurrency-limit.target-wait-ms=60000" })
+@AutoConfigureMockMvc
+public class LoadSheddingIntegrationTest {
+
+	private static final String STORE_ID = "00acc00e-2745-4ffe-b2be-2c461278ba3e";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ConcurrencyLimiter concurrencyLimiter;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Autowired
+	private ClientResolver clientResolver;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Test
+	public void retrieveStore_givenClientOverRateLimit_thenReturn429WithRetryAfter() throws Exception {
+
+		// Given
+		for (int i = 0; i < 3; i++) {
+			mockMvc.perform(get("/stores/" + STORE_ID).header("X-Client-Id", "rate-limited"))
+				.andExpect(status().isOk());
+		}
+		double shed = shed("rate-limit");
+
+		// When and Then assert
+		mockMvc.perform(get("/stores/" + STORE_ID).header("X-Client-Id", "rate-limited"))
+			.andExpect(status().isTooManyRequests())
+			.andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"))
+			.andExpect(jsonPath("$.status").value("TOO_MANY_REQUESTS"));
+		mockMvc.perform(get("/stores/" + STORE_ID).header("X-Client-Id", "another-client"))
+			.andExpect(status().isOk());
+
+		assertEquals(shed + 1, shed("rate-limit"), 0);
+	}
+
+	@Test
+	public void retrieveStore_givenConcurrencyLimitReached_thenReturn503() throws Exception {
+
+		// Given
+		int limit = concurrencyLimiter.getLimit();
+		for (int i = 0; i < limit; i++) {
+			assertTrue(concurrencyLimiter.tryAcquire());
+		}
+		double shed = shed("concurrency");
+
+		// When and Then assert
+		try {
+			mockMvc.perform(get("/stores/" + STORE_ID).header("X-Client-Id", "overloaded"))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+				.andExpect(jsonPath("$.status").value("SERVICE_UNAVAILABLE"));
+			assertEquals(limit, registry.get("http.server.concurrency.in-flight").gauge().value(), 0);
+		}
+		finally {
+			for (int i = 0; i < limit; i++) {
+				concurrencyLimiter.release(0, System.nanoTime());
+			}
+		}
+		assertEquals(shed + 1, shed("concurrency"), 0);
+
+		mockMvc.perform(get("/stores/" + STORE_ID).header("X-Client-Id", "overloaded"))
+			.andExpect(status().isOk());
+		assertEquals(0, concurrencyLimiter.getInFlight());
+	}
+
+	@Test
+	public void health_givenConcurrencyLimitReached_thenIsNotShed() throws Exception {
+
+		// Given
+		int limit = concurrencyLimiter.getLimit();
+		for (int i = 0; i < limit; i++) {
+			assertTrue(concurrencyLimiter.tryAcquire());
+		}
+
+		// When and Then assert
+		try {
+			mockMvc.perform(get("/actuator/health"))
+				.andExpect(status().isOk());
+		}
+		finally {
+			for (int i = 0; i < limit; i++) {
+				concurrencyLimiter.release(0, System.nanoTime());
+			}
+		}
+	}
+
+	@Test
+	public void filter_givenSlowRequestWithoutQueueing_thenLimitNotReduced() throws Exception {
+
+		// Given
+		// Meta de 0 ms: qualquer espera na fila reduz o limite.
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(true, 10, 1, 10, 0);
+		LoadSheddingFilter filter = new LoadSheddingFilter(new RateLimiter(0, 100, 100000), limiter, clientResolver,
+				objectMapper, new SimpleMeterRegistry());
+
+		// When
+		filter.doFilter(new MockHttpServletRequest("GET", "/stores/export"), new MockHttpServletResponse(),
+				(request, response) -> sleep(5));
+
+		// Then assert
+		assertEquals(10, limiter.getLimit());
+		assertEquals(0, limiter.getInFlight());
+	}
+
+	@Test
+	public void filter_givenQueueingOverTarget_thenLimitReduced() throws Exception {
+
+		// Given
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(true, 10, 1, 10, 0);
+		LoadSheddingFilter filter = new LoadSheddingFilter(new RateLimiter(0, 100, 100000), limiter, clientResolver,
+				objectMapper, new SimpleMeterRegistry());
+
+		// When
+		filter.doFilter(new MockHttpServletRequest("GET", "/stores/" + STORE_ID), new MockHttpServletResponse(),
+				(request, response) -> {
+					RequestContextHolder.setRequestAttributes(new ServletRequestAttributes((HttpServletRequest) request));
+					try {
+						QueueingTime.record(TimeUnit.MILLISECONDS.toNanos(1));
+					}
+					finally {
+						RequestContextHolder.resetRequestAttributes();
+					}
+				});
+
+		// Then assert
+		assertEquals(9, limiter.getLimit());
+		assertEquals(0, limiter.getInFlight());
+	}
+
+	@Test
+	public void dataSource_givenRequest_thenPoolWaitTrackedAndPoolMetricsKept() throws Exception {
+
+		// When
+		mockMvc.perform(get("/stores/" + STORE_ID).header("X-Client-Id", "pool-metrics"))
+			.andExpect(status().isOk());
+
+		// Then assert
+		assertTrue(((HikariDataSource) dataSource).getMetricsTrackerFactory() instanceof QueueingTimeMetricsTrackerFactory);
+		assertTrue(registry.get("hikaricp.connections.acquire").timer().count() > 0);
+	}
+
+	private static void sleep(long millis) {
+		try {
+			TimeUnit.MILLISECONDS.sleep(millis);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private double shed(String reason) {
+		return registry.get("http.server.requests.shed").tag("reason", reason).counter().count();
+	}
+
+}
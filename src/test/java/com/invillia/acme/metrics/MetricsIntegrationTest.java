@@ -0,0 +1,72 @@
+package com.invillia.acme.metrics;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.invillia.acme.InvilliaApplication;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, classes = InvilliaApplication.class)
+@AutoConfigureMockMvc
+public class MetricsIntegrationTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Test
+	public void searchStores_thenRepositoryTimedAndStatementsCounted() throws Exception {
+
+		// When
+		mockMvc.perform(get("/stores").param("name", "aracaju"))
+			.andExpect(status().isOk());
+
+		// Then assert
+		Timer timer = registry.find(RepositoryMetricsAspect.METRIC_NAME)
+				.tags("repository", "StoreRepository", "method", "findByParameters")
+				.timer();
+		assertNotNull(timer);
+		assertTrue(timer.count() > 0);
+
+		DistributionSummary statements = registry.find(StatementCountFilter.METRIC_NAME)
+				.tags("method", "GET", "uri", "/stores")
+				.summary();
+		assertNotNull(statements);
+		assertTrue(statements.count() > 0);
+		assertTrue(statements.max() >= 1);
+	}
+
+	@Test
+	public void retrieveStore_thenRequestLatencyHasPercentiles() throws Exception {
+
+		// When
+		mockMvc.perform(get("/stores/" + "49fc24c8-d7e9-4b82-9bb9-cf476877a081"))
+			.andExpect(status().isOk());
+
+		// Then assert
+		mockMvc.perform(get("/actuator/metrics/http.server.requests").param("tag", "uri:/stores/{id}"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.measurements[0].value").isNumber());
+		Timer timer = registry.find("http.server.requests").tags("uri", "/stores/{id}").timer();
+		assertNotNull(timer);
+		assertTrue(timer.takeSnapshot().percentileValues().length == 3);
+	}
+
+}
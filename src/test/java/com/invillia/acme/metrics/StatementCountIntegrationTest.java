@@ -0,0 +1,118 @@
+package com.invillia.acme.metrics;
+
+import static com.invillia.acme.ApiFixture.STORE_ID;
+import static com.invillia.acme.ApiFixture.VALID_CARD;
+import static com.invillia.acme.ApiFixture.item;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invillia.acme.ApiFixture;
+import com.invillia.acme.InvilliaApplication;
+import com.invillia.acme.model.OrderItem;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Garante que cada recurso de leitura executa uma quantidade fixa de comandos SQL, independentemente da quantidade
+ * de Orders e itens retornados.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, classes = InvilliaApplication.class)
+@AutoConfigureMockMvc
+public class StatementCountIntegrationTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	private ApiFixture fixture;
+
+	@Before
+	public void setUp() {
+		fixture = new ApiFixture(mockMvc, objectMapper);
+	}
+
+	@Test
+	public void retrieveOrder_thenSingleStatement() throws Exception {
+
+		// Given
+		String orderId = createOrder(10);
+
+		// Then assert
+		assertEquals(1, statements(get("/orders/" + orderId), "/orders/{id}", jsonPath("$.items.length()").value(10)));
+	}
+
+	@Test
+	public void searchOrders_thenTwoStatementsPerPage() throws Exception {
+
+		// Given
+		for (int i = 0; i < 5; i++) {
+			createOrder(3);
+		}
+
+		// Then assert
+		assertEquals(2, statements(get("/orders").param("storeId", STORE_ID).param("limit", "5"), "/orders",
+				jsonPath("$.length()").value(5)));
+	}
+
+	@Test
+	public void retrieveStore_thenAtMostOneStatement() throws Exception {
+
+		// Then assert
+		// A Store pode já estar no cache, sem nenhum comando.
+		assertTrue(statements(get("/stores/" + "49fc24c8-d7e9-4b82-9bb9-cf476877a081"), "/stores/{id}", status().isOk()) <= 1);
+		assertEquals(1, statements(get("/stores").param("name", "aracaju"), "/stores", status().isOk()));
+	}
+
+	@Test
+	public void retrievePayment_thenSingleStatement() throws Exception {
+
+		// Given
+		String orderId = createOrder(1);
+		String paymentId = fixture.submitPayment(orderId, VALID_CARD);
+
+		// Then assert
+		assertEquals(1, statements(get("/payments/" + paymentId), "/payments/{id}", status().isOk()));
+	}
+
+	private long statements(RequestBuilder request, String uri, ResultMatcher expectation) throws Exception {
+		double before = total(uri);
+		mockMvc.perform(request).andExpect(expectation);
+		return Math.round(total(uri) - before);
+	}
+
+	private double total(String uri) {
+		DistributionSummary summary = registry.find(StatementCountFilter.METRIC_NAME).tags("method", "GET", "uri", uri).summary();
+		return summary == null ? 0 : summary.totalAmount();
+	}
+
+	private String createOrder(int itemCount) throws Exception {
+		OrderItem[] items = new OrderItem[itemCount];
+		Arrays.fill(items, item("10.00", 1));
+		return fixture.createOrder(STORE_ID, items).get("id").asText();
+	}
+
+}
@@ -1,3 +0,0 @@
-/* DATA APENAS PARA TESTES DE INTEGRAÇÃO */
-INSERT INTO STORE(id, name, address) VALUES ('00acc00e-2745-4ffe-b2be-2c461278ba3e', 'Aracaju', 'Centro, Aracaju/SE');
-INSERT INTO STORE(id, name, address) VALUES ('49fc24c8-d7e9-4b82-9bb9-cf476877a081', 'Belo Horizonte', 'Centro, Belo Horizonte/MG');
@@ -0,0 +1,3 @@
+/* DATA APENAS PARA TESTES DE INTEGRAÇÃO */
+MERGE INTO STORE(id, name, address) KEY(id) VALUES ('00acc00e-2745-4ffe-b2be-2c461278ba3e', 'Aracaju', 'Centro, Aracaju/SE');
+MERGE INTO STORE(id, name, address) KEY(id) VALUES ('49fc24c8-d7e9-4b82-9bb9-cf476877a081', 'Belo Horizonte', 'Centro, Belo Horizonte/MG');